@@ -1,9 +1,19 @@
 package com.example.gateway;
+import com.example.common.loadbalancer.LoadBalancingProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 @SpringBootApplication
 public class ApiGatewayApplication {
     public static void main(String[] args) {
         SpringApplication.run(ApiGatewayApplication.class, args);
     }
+
+    /** Switches on the latency-aware load balancer of lb:// routes and profile calls */
+    @Bean
+    @ConfigurationProperties("gateway.load-balancer")
+    LoadBalancingProperties loadBalancingProperties() {
+        return new LoadBalancingProperties();
+    }
 }
@@ -1,25 +1,40 @@
 package com.example.gateway.filter;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cloud.gateway.filter.GlobalFilter;
-import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requires an accepted {@code X-API-KEY} and applies its client's rate limit. A web filter rather than a
+ * gateway filter, so it guards the actuator endpoints too, which are not served through any route.
+ */
 @Component
-public class ApiKeyFilter implements GlobalFilter, Ordered {
+public class ApiKeyFilter implements WebFilter, Ordered {
+
+    private final ApiKeyRegistry keys;
+    private final Counter unauthorized;
+    private final Counter rateLimited;
 
-    @Value("${gateway.api.key}")
-    private String apiKey;
+    public ApiKeyFilter(ApiKeyRegistry keys, MeterRegistry registry) {
+        this.keys = keys;
+        this.unauthorized = registry.counter("gateway.api.key.rejections", "reason", "unauthorized");
+        this.rateLimited = registry.counter("gateway.api.key.rejections", "reason", "rate_limited");
+    }
 
     @Override
-    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        // Skip authentication for Eureka and actuator endpoints (optional)
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        // Skip authentication for Eureka and health checks; every other actuator endpoint needs a key
         String path = exchange.getRequest().getURI().getPath();
-        if (path.startsWith("/actuator") || path.startsWith("/eureka")) {
+        if (path.equals("/actuator/health") || path.startsWith("/actuator/health/") || path.startsWith("/eureka")) {
             return chain.filter(exchange);
         }
 
@@ -27,11 +42,23 @@ public class ApiKeyFilter implements GlobalFilter, Ordered {
         String requestKey = exchange.getRequest().getHeaders().getFirst("X-API-KEY");
 
         // Validate the key
-        if (requestKey == null || !requestKey.equals(apiKey)) {
+        ApiKeyTable.ApiClient client = requestKey == null ? null : keys.find(requestKey);
+        if (client == null) {
+            unauthorized.increment();
             exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
             return exchange.getResponse().setComplete();
         }
 
+        // Per-key rate limit: reject instead of queueing so one client cannot flood the services
+        long waitNanos = client.bucket().tryAcquire(System.nanoTime());
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+            return exchange.getResponse().setComplete();
+        }
+
         // Continue the chain
         return chain.filter(exchange);
     }
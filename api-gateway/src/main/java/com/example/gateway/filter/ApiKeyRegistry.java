@@ -0,0 +1,146 @@
+package com.example.gateway.filter;
+
+import com.example.gateway.filter.ApiKeyTable.ApiClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepted API keys. With {@code gateway.api.keys-file} set, keys are read from that file and re-read
+ * whenever it changes, so keys can be added or rotated without a restart; otherwise the single
+ * {@code gateway.api.key} is accepted. Each line of the file is
+ * {@code <client> <key> [<requests per second> [<burst>]]}; blank lines and {@code #} comments are
+ * skipped. A file that fails to parse leaves the previous keys in place.
+ */
+@Component
+public class ApiKeyRegistry implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiKeyRegistry.class);
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(ApiKeyRegistry::sha256);
+
+    private final Path keysFile;
+    private final double defaultPerSecond;
+    private final int defaultBurst;
+    private final ScheduledExecutorService reloader;
+    private volatile ApiKeyTable table;
+    private volatile FileTime loadedModified;
+
+    public ApiKeyRegistry(@Value("${gateway.api.key:}") String singleKey,
+                          @Value("${gateway.api.keys-file:}") String keysFile,
+                          @Value("${gateway.api.reload-interval:5s}") Duration reloadInterval,
+                          @Value("${gateway.api.rate-limit.per-second:100}") double defaultPerSecond,
+                          @Value("${gateway.api.rate-limit.burst:200}") int defaultBurst) {
+        this.defaultPerSecond = defaultPerSecond;
+        this.defaultBurst = defaultBurst;
+        this.table = ApiKeyTable.of(List.of());
+        if (keysFile.isBlank()) {
+            this.keysFile = null;
+            this.reloader = null;
+            if (!singleKey.isBlank()) {
+                this.table = ApiKeyTable.of(List.of(
+                        new ApiClient("default", digest(singleKey), new TokenBucket(defaultPerSecond, defaultBurst))));
+            }
+            return;
+        }
+        this.keysFile = Path.of(keysFile);
+        reloadIfChanged();
+        this.reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "api-key-reloader");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = reloadInterval.toMillis();
+        reloader.scheduleWithFixedDelay(this::reloadIfChanged, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /** Client owning {@code presentedKey}, or {@code null} if the key is not accepted */
+    public ApiClient find(String presentedKey) {
+        return table.find(digest(presentedKey));
+    }
+
+    void reloadIfChanged() {
+        FileTime modified = null;
+        try {
+            modified = Files.getLastModifiedTime(keysFile);
+            if (modified.equals(loadedModified)) {
+                return;
+            }
+            ApiKeyTable loaded = parse(Files.readAllLines(keysFile, StandardCharsets.UTF_8));
+            table = loaded;
+            log.info("Loaded {} API keys from {}", loaded.size(), keysFile);
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Keeping previous API keys; cannot load {}: {}", keysFile, e.getMessage());
+        } finally {
+            // a broken file is reported once and retried only after it changes again
+            loadedModified = modified;
+        }
+    }
+
+    private ApiKeyTable parse(List<String> lines) {
+        ApiKeyTable previous = table;
+        List<ApiClient> clients = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+        for (int n = 0; n < lines.size(); n++) {
+            String line = lines.get(n).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length < 2 || fields.length > 4) {
+                throw new IllegalArgumentException("line " + (n + 1) + ": expected <client> <key> [<per-second> [<burst>]]");
+            }
+            if (!keys.add(fields[1])) {
+                throw new IllegalArgumentException("line " + (n + 1) + ": duplicate key");
+            }
+            double perSecond = fields.length > 2 ? Double.parseDouble(fields[2]) : defaultPerSecond;
+            int burst = fields.length > 3 ? Integer.parseInt(fields[3]) : defaultBurst;
+            if (perSecond <= 0 || burst <= 0) {
+                throw new IllegalArgumentException("line " + (n + 1) + ": rate and burst must be positive");
+            }
+            byte[] digest = digest(fields[1]);
+            ApiClient existing = previous.find(digest);
+            TokenBucket bucket = existing != null && existing.bucket().sameLimits(perSecond, burst)
+                    ? existing.bucket()
+                    : new TokenBucket(perSecond, burst);
+            clients.add(new ApiClient(fields[0], digest, bucket));
+        }
+        return ApiKeyTable.of(clients);
+    }
+
+    private static byte[] digest(String key) {
+        return SHA256.get().digest(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+}
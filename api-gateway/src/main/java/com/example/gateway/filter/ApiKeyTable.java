@@ -0,0 +1,57 @@
+package com.example.gateway.filter;
+
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Immutable open-addressing table of API clients keyed by the SHA-256 digest of their key. Lookups hash
+ * the presented key once, probe by the digest's leading bytes and confirm with a constant-time
+ * comparison of the full digest, so neither the table nor the comparison reveals how much of a
+ * guessed key was right.
+ */
+final class ApiKeyTable {
+
+    private final ApiClient[] slots;
+    private final int mask;
+    private final int size;
+
+    private ApiKeyTable(List<ApiClient> clients) {
+        int capacity = Integer.highestOneBit(Math.max(4, clients.size() * 2 - 1)) << 1;
+        this.slots = new ApiClient[capacity];
+        this.mask = capacity - 1;
+        this.size = clients.size();
+        for (ApiClient client : clients) {
+            int i = slot(client.digest());
+            while (slots[i] != null) {
+                i = (i + 1) & mask;
+            }
+            slots[i] = client;
+        }
+    }
+
+    static ApiKeyTable of(List<ApiClient> clients) {
+        return new ApiKeyTable(clients);
+    }
+
+    ApiClient find(byte[] digest) {
+        for (int i = slot(digest); slots[i] != null; i = (i + 1) & mask) {
+            if (MessageDigest.isEqual(slots[i].digest(), digest)) {
+                return slots[i];
+            }
+        }
+        return null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(byte[] digest) {
+        int h = (digest[0] & 0xff) << 24 | (digest[1] & 0xff) << 16 | (digest[2] & 0xff) << 8 | (digest[3] & 0xff);
+        return h & mask;
+    }
+
+    /** One accepted key: its owner, the digest it is stored under and the owner's bucket */
+    record ApiClient(String name, byte[] digest, TokenBucket bucket) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code ETagCache} route filter: keeps the last 200 response of each GET URL (per {@code Accept}) that carried
+ * a strong ETag and revalidates it instead of refetching. The next request for that URL is forwarded with
+ * {@code If-None-Match}; if the backend answers 304 the cached body is served as a 200, so a repeated
+ * read costs the backend a version lookup and no serialization. Requests that already carry their own
+ * {@code If-None-Match} are forwarded untouched. The cache is bounded by total body size.
+ */
+@Component
+public class ETagCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ETagCacheGatewayFilterFactory.Config>
+        implements MeterBinder {
+
+    static final String CACHE_STATUS_HEADER = "X-Gateway-Cache";
+
+    private final boolean enabled;
+    private final int maxEntryBytes;
+    private final Cache<String, CachedResponse> cache;
+    private final LongAdder revalidated = new LongAdder();
+    private final LongAdder stored = new LongAdder();
+
+    public ETagCacheGatewayFilterFactory(@Value("${gateway.response-cache.enabled:true}") boolean enabled,
+                                         @Value("${gateway.response-cache.max-size:16MB}") DataSize maxSize,
+                                         @Value("${gateway.response-cache.max-entry-size:64KB}") DataSize maxEntrySize) {
+        super(Config.class);
+        this.enabled = enabled;
+        this.maxEntryBytes = (int) maxEntrySize.toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, CachedResponse value) -> key.length() + value.body().length)
+                .build();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        GatewayFilter filter = (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (!enabled || request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            // the same URL can be negotiated as JSON, Smile or CBOR, each with its own body
+            String key = request.getURI().getRawPath()
+                    + (request.getURI().getRawQuery() == null ? "" : "?" + request.getURI().getRawQuery())
+                    + " " + String.join(",", request.getHeaders().getOrEmpty(HttpHeaders.ACCEPT));
+            CachedResponse cached = request.getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH)
+                    ? null
+                    : cache.getIfPresent(key);
+
+            ServerWebExchange forwarded = exchange;
+            if (cached != null) {
+                forwarded = exchange.mutate()
+                        .request(r -> r.headers(h -> h.setIfNoneMatch(cached.etag())))
+                        .build();
+            }
+            return chain.filter(forwarded.mutate()
+                    .response(new CachingResponse(forwarded.getResponse(), key, cached))
+                    .build());
+        };
+        // must wrap the response before NettyWriteResponseFilter writes the backend body into it
+        return new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    /** Backend 304s turned into cached 200s */
+    public long revalidatedCount() {
+        return revalidated.sum();
+    }
+
+    /** Responses stored after a full backend read */
+    public long storedCount() {
+        return stored.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.response.cache", revalidated, LongAdder::sum)
+                .description("Responses handled by the ETag cache")
+                .tag("result", "revalidated")
+                .register(registry);
+        FunctionCounter.builder("gateway.response.cache", stored, LongAdder::sum)
+                .description("Responses handled by the ETag cache")
+                .tag("result", "stored")
+                .register(registry);
+        Gauge.builder("gateway.response.cache.size", cache, Cache::estimatedSize)
+                .description("Cached responses")
+                .register(registry);
+    }
+
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final CachedResponse cached;
+
+        CachingResponse(ServerHttpResponse delegate, String key, CachedResponse cached) {
+            super(delegate);
+            this.key = key;
+            this.cached = cached;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            if (cached != null && HttpStatus.NOT_MODIFIED.equals(getStatusCode())) {
+                revalidated.increment();
+                setStatusCode(HttpStatus.OK);
+                headers.setContentType(cached.contentType());
+                headers.setContentLength(cached.body().length);
+                headers.set(CACHE_STATUS_HEADER, "REVALIDATED");
+                return Flux.from(body)
+                        .doOnNext(DataBufferUtils::release)
+                        .then(Mono.defer(() -> super.writeWith(Mono.just(bufferFactory().wrap(cached.body())))));
+            }
+
+            String etag = headers.getETag();
+            if (!HttpStatus.OK.equals(getStatusCode()) || etag == null || etag.startsWith("W/")) {
+                cache.invalidate(key);
+                return super.writeWith(body);
+            }
+            MediaType contentType = headers.getContentType();
+            return Flux.from(body).collectList().flatMap(buffers -> {
+                int size = buffers.stream().mapToInt(DataBuffer::readableByteCount).sum();
+                if (size <= maxEntryBytes) {
+                    cache.put(key, new CachedResponse(etag, contentType, copy(buffers, size)));
+                    stored.increment();
+                    headers.set(CACHE_STATUS_HEADER, "MISS");
+                }
+                return super.writeWith(Flux.fromIterable(buffers));
+            });
+        }
+
+        private static byte[] copy(List<? extends DataBuffer> buffers, int size) {
+            byte[] bytes = new byte[size];
+            int offset = 0;
+            for (DataBuffer buffer : buffers) {
+                int length = buffer.readableByteCount();
+                int position = buffer.readPosition();
+                buffer.read(bytes, offset, length);
+                buffer.readPosition(position);
+                offset += length;
+            }
+            return bytes;
+        }
+    }
+
+    private record CachedResponse(String etag, MediaType contentType, byte[] body) {
+    }
+
+    /** No options; sizing comes from {@code gateway.response-cache.*} */
+    public static class Config {
+    }
+}
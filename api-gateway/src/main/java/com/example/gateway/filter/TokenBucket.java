@@ -0,0 +1,41 @@
+package com.example.gateway.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the only state is the theoretical arrival time of the next
+ * request, advanced with a single CAS, so admitting a request never blocks an event-loop thread and
+ * allocates nothing. Equivalent to a bucket of {@code burst} tokens refilled at {@code perSecond}.
+ */
+final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double perSecond, int burst) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / perSecond);
+        this.capacityNanos = emissionIntervalNanos * Math.max(1, burst);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /** @return 0 if the request is admitted, otherwise the nanos until it would be */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, nowNanos) + emissionIntervalNanos;
+            long excess = next - nowNanos - capacityNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    boolean sameLimits(double perSecond, int burst) {
+        return emissionIntervalNanos == (long) (1_000_000_000L / perSecond)
+                && capacityNanos == emissionIntervalNanos * Math.max(1, burst);
+    }
+}
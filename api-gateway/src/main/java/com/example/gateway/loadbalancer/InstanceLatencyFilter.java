@@ -0,0 +1,68 @@
+package com.example.gateway.loadbalancer;
+
+import com.example.common.loadbalancer.InstanceScores;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+/**
+ * Feeds {@link InstanceScores} from requests routed to an {@code lb://} instance. A request is timed until its
+ * response is committed, i.e. until the instance's status and headers are in, so a long NDJSON stream counts as
+ * fast as its first line. A request the client gave up on leaves the instance's in-flight count without a sample.
+ */
+@Component
+public class InstanceLatencyFilter implements GlobalFilter, Ordered {
+
+    private final InstanceScores scores;
+
+    public InstanceLatencyFilter(InstanceScores scores) {
+        this.scores = scores;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> chosen = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        ServerHttpRequest request = exchange.getRequest();
+        if (chosen == null || !chosen.hasServer() || InstanceScores.untimed(request.getURI(), request.getHeaders())) {
+            return chain.filter(exchange);
+        }
+        ServiceInstance instance = chosen.getServer();
+        long start = scores.start(instance);
+        AtomicBoolean finished = new AtomicBoolean();
+        exchange.getResponse().beforeCommit(() -> {
+            if (finished.compareAndSet(false, true)) {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                scores.finish(instance, start, status != null && status.is5xxServerError());
+            }
+            return Mono.empty();
+        });
+        return chain.filter(exchange).doFinally(signal -> {
+            if (finished.compareAndSet(false, true)) {
+                if (signal == SignalType.CANCEL) {
+                    scores.abandon(instance, start);
+                } else {
+                    scores.finish(instance, start, signal == SignalType.ON_ERROR);
+                }
+            }
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // the instance is chosen by then, and the request not yet sent to it
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
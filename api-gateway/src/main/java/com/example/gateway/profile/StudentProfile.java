@@ -0,0 +1,18 @@
+package com.example.gateway.profile;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Student together with their enrollments, assembled by the gateway from both services.
+ * A side that could not be fetched is {@code null} and described in {@code errors}; an empty
+ * {@code errors} list means the profile is complete.
+ *
+ * @param enrollmentsTruncated the student has more enrollments than {@code gateway.profile.enrollments-size}
+ */
+public record StudentProfile(JsonNode student,
+                             JsonNode enrollments,
+                             boolean enrollmentsTruncated,
+                             List<String> errors) {
+}
@@ -0,0 +1,101 @@
+package com.example.gateway.profile;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fetches a student and their enrollments from students-service and enrollments-service at the same
+ * time, resolving both through the load balancer like the {@code lb://} routes do. Each side has its
+ * own timeout and a failure on one side still yields the other.
+ */
+@Component
+public class StudentProfileClient {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentProfileClient.class);
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final WebClient webClient;
+    private final Duration timeout;
+    private final int enrollmentsSize;
+
+    public StudentProfileClient(WebClient.Builder builder,
+                                ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+                                @Value("${gateway.profile.timeout:2s}") Duration timeout,
+                                @Value("${gateway.profile.enrollments-size:100}") int enrollmentsSize) {
+        this.webClient = builder.filter(loadBalancer).build();
+        this.timeout = timeout;
+        this.enrollmentsSize = enrollmentsSize;
+    }
+
+    /**
+     * Profile of {@code studentId}: 200 when at least one side answered (partial if the other failed),
+     * 404 when students-service does not know the student, 502 when both sides failed.
+     */
+    public Mono<ResponseEntity<StudentProfile>> profile(long studentId) {
+        Mono<Part> student = webClient.get()
+                .uri("http://students-service/students/{id}", studentId)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .toEntity(JsonNode.class)
+                .timeout(timeout)
+                .map(Part::of)
+                .onErrorResume(e -> Mono.just(Part.failed("students-service", studentId, e)));
+        Mono<Part> enrollments = webClient.get()
+                .uri("http://enrollments-service/enrollments?studentId={id}&size={size}", studentId, enrollmentsSize)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .toEntity(JsonNode.class)
+                .timeout(timeout)
+                .map(Part::of)
+                .onErrorResume(e -> Mono.just(Part.failed("enrollments-service", studentId, e)));
+
+        return Mono.zip(student, enrollments, (s, e) -> merge(studentId, s, e));
+    }
+
+    private static ResponseEntity<StudentProfile> merge(long studentId, Part student, Part enrollments) {
+        if (student.notFound()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new StudentProfile(null, null, false,
+                    List.of("Student with ID " + studentId + " not found")));
+        }
+        List<String> errors = new ArrayList<>(2);
+        if (student.error() != null) {
+            errors.add(student.error());
+        }
+        if (enrollments.error() != null) {
+            errors.add(enrollments.error());
+        }
+        StudentProfile profile = new StudentProfile(student.body(), enrollments.body(), enrollments.hasMore(), errors);
+        HttpStatus status = student.error() != null && enrollments.error() != null ? HttpStatus.BAD_GATEWAY : HttpStatus.OK;
+        return ResponseEntity.status(status).body(profile);
+    }
+
+    /** Outcome of one downstream call */
+    private record Part(JsonNode body, boolean hasMore, String error, boolean notFound) {
+
+        static Part of(ResponseEntity<JsonNode> response) {
+            return new Part(response.getBody(), response.getHeaders().containsKey(NEXT_CURSOR_HEADER), null, false);
+        }
+
+        static Part failed(String service, long studentId, Throwable e) {
+            if (e instanceof WebClientResponseException.NotFound) {
+                return new Part(null, false, service + ": not found", true);
+            }
+            log.warn("Profile of student {}: {} failed: {}", studentId, service, e.toString());
+            return new Part(null, false, service + ": unavailable", false);
+        }
+    }
+}
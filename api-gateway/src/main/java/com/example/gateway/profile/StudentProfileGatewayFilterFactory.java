@@ -0,0 +1,67 @@
+package com.example.gateway.profile;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@code StudentProfile} route filter: answers {@code /api/students/{id}/profile} itself from
+ * {@link StudentProfileClient} instead of proxying, so global filters such as the API key check
+ * still apply. The route's {@code uri} is never called.
+ */
+@Component
+public class StudentProfileGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<StudentProfileGatewayFilterFactory.Config> {
+
+    private final StudentProfileClient client;
+    private final ObjectMapper objectMapper;
+
+    public StudentProfileGatewayFilterFactory(StudentProfileClient client, ObjectMapper objectMapper) {
+        super(Config.class);
+        this.client = client;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            String id = ServerWebExchangeUtils.getUriTemplateVariables(exchange).get("id");
+            long studentId;
+            try {
+                studentId = Long.parseLong(id);
+            } catch (NumberFormatException e) {
+                exchange.getResponse().setStatusCode(HttpStatus.BAD_REQUEST);
+                return exchange.getResponse().setComplete();
+            }
+            return client.profile(studentId)
+                    .flatMap(result -> write(exchange, result.getStatusCode(), result.getBody()));
+        };
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, HttpStatusCode status, StudentProfile profile) {
+        ServerHttpResponse response = exchange.getResponse();
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(profile);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(json.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(json)));
+    }
+
+    /** No options; the downstream timeout and page size come from {@code gateway.profile.*} */
+    public static class Config {
+    }
+}
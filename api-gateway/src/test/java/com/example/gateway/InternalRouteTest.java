@@ -0,0 +1,95 @@
+package com.example.gateway;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"eureka.client.enabled=false", "gateway.api.key=test-key",
+                "spring.cloud.gateway.discovery.locator.enabled=true",
+                "spring.cloud.gateway.discovery.locator.lower-case-service-id=true"})
+class InternalRouteTest {
+
+    private static final List<String> received = new CopyOnWriteArrayList<>();
+    private static final HttpServer enrollments = start();
+
+    @Autowired
+    private WebTestClient client;
+
+    @DynamicPropertySource
+    static void instances(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.enrollments-service[0].uri",
+                () -> "http://127.0.0.1:" + enrollments.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stop() {
+        enrollments.stop(0);
+    }
+
+    @BeforeEach
+    void clear() {
+        received.clear();
+    }
+
+    @Test
+    void shouldNotRouteInternalEndpoints() {
+        client.delete().uri("/enrollments-service/internal/student-cache/7").header("X-API-KEY", "test-key")
+                .exchange()
+                .expectStatus().isNotFound();
+
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    void shouldStillRouteEverythingElseThroughTheDiscoveryLocator() {
+        client.get().uri("/enrollments-service/enrollments/7").header("X-API-KEY", "test-key")
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(received).containsExactly("GET /enrollments/7");
+    }
+
+    @Test
+    void shouldRequireAKeyForActuatorEndpointsOtherThanHealth() {
+        client.get().uri("/actuator/health").exchange().expectStatus().isOk();
+        client.get().uri("/actuator/loadbalancer").exchange().expectStatus().isUnauthorized();
+        client.get().uri("/actuator/loadbalancer").header("X-API-KEY", "test-key").exchange().expectStatus().isOk();
+    }
+
+    private static HttpServer start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/", exchange -> {
+                received.add(exchange.getRequestMethod() + " " + exchange.getRequestURI());
+                byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
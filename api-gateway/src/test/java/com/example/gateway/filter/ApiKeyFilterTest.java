@@ -0,0 +1,103 @@
+package com.example.gateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiKeyFilterTest {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final AtomicInteger passed = new AtomicInteger();
+    private final WebFilterChain chain = exchange -> {
+        passed.incrementAndGet();
+        return Mono.empty();
+    };
+
+    @Test
+    void shouldRejectMissingAndUnknownKeys() {
+        ApiKeyFilter filter = filter(100, 200);
+
+        assertThat(status(filter, MockServerHttpRequest.get("/api/students/1"))).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(status(filter, MockServerHttpRequest.get("/api/students/1").header("X-API-KEY", "wrong")))
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+
+        assertThat(passed).hasValue(0);
+        assertThat(rejections("unauthorized")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldPassAnAcceptedKey() {
+        ApiKeyFilter filter = filter(100, 200);
+
+        assertThat(status(filter, MockServerHttpRequest.get("/api/students/1").header("X-API-KEY", "secret"))).isNull();
+
+        assertThat(passed).hasValue(1);
+    }
+
+    @Test
+    void shouldRejectOverTheRateLimitWithRetryAfter() {
+        ApiKeyFilter filter = filter(0.5, 2);
+
+        status(filter, MockServerHttpRequest.get("/api/students/1").header("X-API-KEY", "secret"));
+        status(filter, MockServerHttpRequest.get("/api/students/1").header("X-API-KEY", "secret"));
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/students/1").header("X-API-KEY", "secret"));
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        // at 0.5/s the next token is just under two seconds away, rounded up to whole seconds
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(passed).hasValue(2);
+        assertThat(rejections("rate_limited")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLetHealthChecksAndEurekaThroughWithoutAKey() {
+        ApiKeyFilter filter = filter(100, 200);
+
+        assertThat(status(filter, MockServerHttpRequest.get("/actuator/health"))).isNull();
+        assertThat(status(filter, MockServerHttpRequest.get("/actuator/health/liveness"))).isNull();
+        assertThat(status(filter, MockServerHttpRequest.get("/eureka/apps"))).isNull();
+
+        assertThat(passed).hasValue(3);
+    }
+
+    @Test
+    void shouldRequireAKeyForEveryOtherActuatorEndpoint() {
+        ApiKeyFilter filter = filter(100, 200);
+
+        for (String path : new String[]{"/actuator", "/actuator/prometheus", "/actuator/loadbalancer",
+                "/actuator/env", "/actuator/healthz"}) {
+            assertThat(status(filter, MockServerHttpRequest.get(path))).as(path).isEqualTo(HttpStatus.UNAUTHORIZED);
+        }
+        assertThat(status(filter, MockServerHttpRequest.get("/actuator/prometheus").header("X-API-KEY", "secret")))
+                .isNull();
+
+        assertThat(passed).hasValue(1);
+    }
+
+    private ApiKeyFilter filter(double perSecond, int burst) {
+        return new ApiKeyFilter(new ApiKeyRegistry("secret", "", Duration.ofHours(1), perSecond, burst), meters);
+    }
+
+    /** Status the filter answered with itself, {@code null} if it passed the request on */
+    private HttpStatus status(ApiKeyFilter filter, MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, chain).block();
+        return (HttpStatus) exchange.getResponse().getStatusCode();
+    }
+
+    private double rejections(String reason) {
+        return meters.get("gateway.api.key.rejections").tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.gateway.filter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiKeyRegistryTest {
+
+    @TempDir
+    private Path dir;
+    private ApiKeyRegistry registry;
+    private Instant modified = Instant.parse("2026-01-01T00:00:00Z");
+
+    @AfterEach
+    void stop() {
+        if (registry != null) {
+            registry.destroy();
+        }
+    }
+
+    @Test
+    void shouldAcceptTheSingleKeyWithoutAFile() {
+        registry = new ApiKeyRegistry("secret", "", Duration.ofHours(1), 100, 200);
+
+        assertThat(registry.find("secret")).isNotNull().extracting(ApiKeyTable.ApiClient::name).isEqualTo("default");
+        assertThat(registry.find("secret ")).isNull();
+        assertThat(registry.find("")).isNull();
+    }
+
+    @Test
+    void shouldAcceptNothingWithoutAKeyOrAFile() {
+        registry = new ApiKeyRegistry("", "", Duration.ofHours(1), 100, 200);
+
+        assertThat(registry.find("")).isNull();
+    }
+
+    @Test
+    void shouldReadClientsWithTheirOwnLimits() throws IOException {
+        Path keys = write("""
+                # mobile gets the defaults
+                mobile   key-mobile
+
+                partner  key-partner  1  1
+                """);
+        registry = new ApiKeyRegistry("", keys.toString(), Duration.ofHours(1), 100, 200);
+
+        assertThat(registry.find("key-mobile").name()).isEqualTo("mobile");
+        assertThat(registry.find("key-mobile").bucket().sameLimits(100, 200)).isTrue();
+        ApiKeyTable.ApiClient partner = registry.find("key-partner");
+        assertThat(partner.name()).isEqualTo("partner");
+        long now = System.nanoTime();
+        assertThat(partner.bucket().tryAcquire(now)).isZero();
+        assertThat(partner.bucket().tryAcquire(now)).isPositive();
+    }
+
+    @Test
+    void shouldKeepThePreviousKeysWhenAnEntryIsMalformed() throws IOException {
+        Path keys = write("mobile key-mobile\n");
+        registry = new ApiKeyRegistry("", keys.toString(), Duration.ofHours(1), 100, 200);
+
+        for (String broken : new String[]{
+                "mobile\n",                                   // no key
+                "mobile key-mobile 10 20 30\n",               // too many fields
+                "mobile key-mobile\nweb key-mobile\n",        // duplicate key
+                "mobile key-mobile fast\n",                   // rate not a number
+                "mobile key-mobile 10 many\n",                // burst not a number
+                "mobile key-mobile 0\n",                      // rate not positive
+                "mobile key-mobile 10 -1\n"}) {               // burst not positive
+            rewrite(keys, broken.replace("key-mobile", "key-new") + "web key-web\n");
+
+            assertThat(registry.find("key-mobile")).as(broken).isNotNull();
+            assertThat(registry.find("key-web")).as(broken).isNull();
+        }
+    }
+
+    @Test
+    void shouldPickUpChangesAndKeepTheBucketOfAnUnchangedKey() throws IOException {
+        Path keys = write("mobile key-mobile 1 1\n");
+        registry = new ApiKeyRegistry("", keys.toString(), Duration.ofHours(1), 100, 200);
+        TokenBucket bucket = registry.find("key-mobile").bucket();
+
+        rewrite(keys, "mobile key-mobile 1 1\nweb key-web\n");
+
+        assertThat(registry.find("key-web")).isNotNull();
+        assertThat(registry.find("key-mobile").bucket()).isSameAs(bucket);
+
+        rewrite(keys, "mobile key-mobile 5 5\n");
+
+        assertThat(registry.find("key-web")).isNull();
+        assertThat(registry.find("key-mobile").bucket()).isNotSameAs(bucket);
+    }
+
+    @Test
+    void shouldFindEveryClientOfALargeTable() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            lines.append("client-").append(i).append(" key-").append(i).append('\n');
+        }
+        registry = new ApiKeyRegistry("", write(lines.toString()).toString(), Duration.ofHours(1), 100, 200);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(registry.find("key-" + i).name()).isEqualTo("client-" + i);
+        }
+        assertThat(registry.find("key-1000")).isNull();
+    }
+
+    private Path write(String content) throws IOException {
+        Path keys = dir.resolve("api-keys.txt");
+        Files.writeString(keys, content);
+        Files.setLastModifiedTime(keys, FileTime.from(modified));
+        return keys;
+    }
+
+    /** Rewrites the file with a later modification time and reloads it, as the reloader thread would */
+    private void rewrite(Path keys, String content) throws IOException {
+        modified = modified.plusSeconds(1);
+        Files.writeString(keys, content);
+        Files.setLastModifiedTime(keys, FileTime.from(modified));
+        registry.reloadIfChanged();
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.gateway.filter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.example.gateway.filter.ETagCacheGatewayFilterFactory.CACHE_STATUS_HEADER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The {@code students} route against a stub students-service whose students carry a version: it answers a GET with
+ * the student in the requested format and {@code ETag: "<version>-<format>"}, or 304 when {@code If-None-Match}
+ * still matches.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"eureka.client.enabled=false", "gateway.api.key=test-key"})
+class ETagCacheGatewayFilterFactoryTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    /** If-None-Match of every request the stub received, "-" when absent */
+    private static final List<String> received = new CopyOnWriteArrayList<>();
+    private static final Map<String, Integer> versions = new ConcurrentHashMap<>();
+    private static final HttpServer students = start();
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private ETagCacheGatewayFilterFactory etagCache;
+
+    @DynamicPropertySource
+    static void instances(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.students-service[0].uri",
+                () -> "http://127.0.0.1:" + students.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stop() {
+        students.stop(0);
+    }
+
+    @BeforeEach
+    void clear() {
+        received.clear();
+    }
+
+    @Test
+    void shouldStoreAResponseWithAStrongETag() {
+        long stored = etagCache.storedCount();
+
+        get("/api/students/1", MediaType.APPLICATION_JSON)
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(CACHE_STATUS_HEADER, "MISS")
+                .expectBody(String.class).isEqualTo("student 1 v1 as json");
+
+        assertThat(received).containsExactly("-");
+        assertThat(etagCache.storedCount()).isEqualTo(stored + 1);
+    }
+
+    @Test
+    void shouldServeTheCachedBodyWhenTheBackendRevalidatesIt() {
+        get("/api/students/2", MediaType.APPLICATION_JSON).expectStatus().isOk();
+        long revalidated = etagCache.revalidatedCount();
+
+        get("/api/students/2", MediaType.APPLICATION_JSON)
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(CACHE_STATUS_HEADER, "REVALIDATED")
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(String.class).isEqualTo("student 2 v1 as json");
+
+        assertThat(received).containsExactly("-", "\"1-json\"");
+        assertThat(etagCache.revalidatedCount()).isEqualTo(revalidated + 1);
+    }
+
+    @Test
+    void shouldReplaceTheEntryWhenTheETagChanged() {
+        get("/api/students/3", MediaType.APPLICATION_JSON).expectStatus().isOk();
+        versions.put("/students/3", 2);
+
+        get("/api/students/3", MediaType.APPLICATION_JSON)
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(CACHE_STATUS_HEADER, "MISS")
+                .expectBody(String.class).isEqualTo("student 3 v2 as json");
+        get("/api/students/3", MediaType.APPLICATION_JSON)
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(CACHE_STATUS_HEADER, "REVALIDATED")
+                .expectBody(String.class).isEqualTo("student 3 v2 as json");
+
+        assertThat(received).containsExactly("-", "\"1-json\"", "\"2-json\"");
+    }
+
+    @Test
+    void shouldPassAClientsOwnIfNoneMatchThrough() {
+        get("/api/students/4", MediaType.APPLICATION_JSON).expectStatus().isOk();
+
+        client.get().uri("/api/students/4")
+                .header("X-API-KEY", "test-key")
+                .accept(MediaType.APPLICATION_JSON)
+                .ifNoneMatch("\"1-json\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().doesNotExist(CACHE_STATUS_HEADER);
+        client.get().uri("/api/students/4")
+                .header("X-API-KEY", "test-key")
+                .accept(MediaType.APPLICATION_JSON)
+                .ifNoneMatch("\"0-json\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("student 4 v1 as json");
+
+        assertThat(received).containsExactly("-", "\"1-json\"", "\"0-json\"");
+    }
+
+    @Test
+    void shouldKeepOneEntryPerAccept() {
+        get("/api/students/5", MediaType.APPLICATION_JSON).expectStatus().isOk();
+
+        get("/api/students/5", SMILE)
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(CACHE_STATUS_HEADER, "MISS")
+                .expectHeader().contentType(SMILE)
+                .expectBody(String.class).isEqualTo("student 5 v1 as smile");
+        get("/api/students/5", MediaType.APPLICATION_JSON)
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(CACHE_STATUS_HEADER, "REVALIDATED")
+                .expectBody(String.class).isEqualTo("student 5 v1 as json");
+        get("/api/students/5", SMILE)
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(CACHE_STATUS_HEADER, "REVALIDATED")
+                .expectBody(String.class).isEqualTo("student 5 v1 as smile");
+
+        assertThat(received).containsExactly("-", "-", "\"1-json\"", "\"1-smile\"");
+    }
+
+    private WebTestClient.ResponseSpec get(String uri, MediaType accept) {
+        return client.get().uri(uri).header("X-API-KEY", "test-key").accept(accept).exchange();
+    }
+
+    private static HttpServer start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/students", ETagCacheGatewayFilterFactoryTest::answer);
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void answer(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        received.add(ifNoneMatch == null ? "-" : ifNoneMatch);
+
+        boolean smile = SMILE.toString().equals(exchange.getRequestHeaders().getFirst(HttpHeaders.ACCEPT));
+        String format = smile ? "smile" : "json";
+        int version = versions.computeIfAbsent(path, p -> 1);
+        String etag = "\"" + version + "-" + format + "\"";
+        exchange.getResponseHeaders().set(HttpHeaders.ETAG, etag);
+        if (etag.equals(ifNoneMatch)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = ("student " + path.substring(path.lastIndexOf('/') + 1) + " v" + version + " as " + format)
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, smile ? SMILE.toString() : "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
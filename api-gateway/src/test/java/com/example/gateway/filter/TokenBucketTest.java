@@ -0,0 +1,55 @@
+package com.example.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void shouldAdmitABurstAndThenReject() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long now = System.nanoTime();
+
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isZero();
+        // the fourth has to wait one emission interval (100ms) for the first token to come back
+        assertThat(bucket.tryAcquire(now)).isEqualTo(100 * MILLIS);
+        assertThat(bucket.tryAcquire(now + 50 * MILLIS)).isEqualTo(50 * MILLIS);
+    }
+
+    @Test
+    void shouldRefillAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        long now = System.nanoTime();
+
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now + 99 * MILLIS)).isPositive();
+        assertThat(bucket.tryAcquire(now + 100 * MILLIS)).isZero();
+        assertThat(bucket.tryAcquire(now + 100 * MILLIS)).isPositive();
+    }
+
+    @Test
+    void shouldNotSaveUpMoreThanTheBurstWhileIdle() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        long later = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+
+    @Test
+    void shouldCompareLimits() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+
+        assertThat(bucket.sameLimits(10, 3)).isTrue();
+        assertThat(bucket.sameLimits(10, 4)).isFalse();
+        assertThat(bucket.sameLimits(20, 3)).isFalse();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.gateway.loadbalancer;
+
+import com.example.common.loadbalancer.InstanceScores;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+class InstanceLatencyFilterTest {
+
+    private final ServiceInstance instance = new DefaultServiceInstance("a", "students-service", "a", 8080, false);
+    private final InstanceScores scores = new InstanceScores(InstanceScores.Strategy.LATENCY,
+            Duration.ofSeconds(10), Duration.ofSeconds(1));
+    private final InstanceLatencyFilter filter = new InstanceLatencyFilter(scores);
+
+    @Test
+    void shouldTimeTheRequestOnceWhenTheResponseCommitsBeforeTheChainCompletes() {
+        MockServerWebExchange exchange = exchange("/students/7");
+        AtomicInteger commits = new AtomicInteger();
+        exchange.getResponse().beforeCommit(() -> Mono.fromRunnable(commits::incrementAndGet));
+
+        filter.filter(exchange, e -> e.getResponse().setComplete()).block();
+
+        assertThat(commits).hasValue(1);
+        assertThat(score()).satisfies(score -> {
+            assertThat(score.requests()).isEqualTo(1);
+            assertThat(score.failures()).isZero();
+            assertThat(score.inFlight()).isZero();
+        });
+    }
+
+    @Test
+    void shouldCountA5xxAsAFailure() {
+        MockServerWebExchange exchange = exchange("/students/7");
+
+        filter.filter(exchange, e -> {
+            e.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return e.getResponse().setComplete();
+        }).block();
+
+        assertThat(score().requests()).isEqualTo(1);
+        assertThat(score().failures()).isEqualTo(1);
+        assertThat(scores.cost(instance)).as("the failure penalty, barely decayed")
+                .isGreaterThan(Duration.ofMillis(900).toNanos());
+    }
+
+    @Test
+    void shouldCountAnErrorBeforeTheResponseAsAFailure() {
+        filter.filter(exchange("/students/7"), e -> Mono.error(new IllegalStateException("connection reset")))
+                .onErrorComplete()
+                .block();
+
+        assertThat(score().requests()).isEqualTo(1);
+        assertThat(score().failures()).isEqualTo(1);
+        assertThat(score().inFlight()).isZero();
+    }
+
+    @Test
+    void shouldAbandonARequestTheClientCancelled() {
+        GatewayFilterChain hanging = e -> Mono.never();
+        Disposable request = filter.filter(exchange("/students/7"), hanging).subscribe();
+        assertThat(score().inFlight()).isEqualTo(1);
+
+        request.dispose();
+
+        assertThat(score().inFlight()).isZero();
+        assertThat(score().requests()).isZero();
+    }
+
+    @Test
+    void shouldLeaveLongPollsUntimed() {
+        AtomicInteger calls = new AtomicInteger();
+
+        filter.filter(exchange("/students/changes?after=0&wait=20s"), e -> {
+            calls.incrementAndGet();
+            return e.getResponse().setComplete();
+        }).block();
+
+        assertThat(calls).hasValue(1);
+        assertThat(scores.snapshot()).isEmpty();
+    }
+
+    private MockServerWebExchange exchange(String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(instance));
+        return exchange;
+    }
+
+    private InstanceScores.InstanceScore score() {
+        return scores.snapshot().get("students-service").get(0);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.benchmarks;
+
+import com.example.enrollments.EnrollmentsServiceApplication;
+import com.example.enrollments.cache.StudentCache;
+import com.example.enrollments.dto.EnrollmentDTO;
+import com.example.enrollments.dto.StudentChangeDTO;
+import com.example.enrollments.dto.StudentDTO;
+import com.example.enrollments.feign.StudentClient;
+import com.example.enrollments.model.Enrollment;
+import com.example.enrollments.repo.EnrollmentRepository;
+import com.example.enrollments.service.EnrollmentService;
+import feign.Request;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link EnrollmentService#create} and {@link EnrollmentService#createAsync} against in-memory H2, with
+ * {@link StudentClient} stubbed so the numbers cover the service, the resilience4j proxies and the
+ * insert but not the network. {@code nearCache=false} evicts the student first, forcing a client call
+ * (the student replica stays empty, its feed is disabled here).
+ * <p>
+ * A student can hold only one enrollment per course and semester, so every call uses the next semester and
+ * the table is emptied before each iteration; the same semesters come round again and their (unlimited)
+ * seat lookups are already cached after warmup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnrollmentCreateBenchmark {
+
+    private static final long STUDENT_ID = 1L;
+
+    @Param({"true", "false"})
+    private boolean nearCache;
+
+    private ConfigurableApplicationContext context;
+    private EnrollmentService service;
+    private StudentCache studentCache;
+    private EnrollmentRepository enrollments;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Setup
+    public void start() {
+        context = ServiceContexts.start("enrollments-bench", EnrollmentsServiceApplication.class, StubStudentClient.class);
+        service = context.getBean(EnrollmentService.class);
+        studentCache = context.getBean(StudentCache.class);
+        enrollments = context.getBean(EnrollmentRepository.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void clear() {
+        enrollments.deleteAllInBatch();
+        calls.set(0);
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Enrollment create() {
+        if (!nearCache) {
+            studentCache.evict(STUDENT_ID);
+        }
+        return service.create(nextEnrollment());
+    }
+
+    @Benchmark
+    public Enrollment createAsync() {
+        if (!nearCache) {
+            studentCache.evict(STUDENT_ID);
+        }
+        return service.createAsync(nextEnrollment()).join();
+    }
+
+    private EnrollmentDTO nextEnrollment() {
+        int n = calls.getAndIncrement();
+        return new EnrollmentDTO(null, STUDENT_ID, "DS101", (n % 9 + 1) + "/" + (1000 + n / 9));
+    }
+
+    /** Swaps the Feign client instance for an in-memory answer wherever it is injected */
+    @Configuration
+    static class StubStudentClient {
+
+        @Bean
+        static BeanPostProcessor stubStudentClient() {
+            StudentClient stub = new StudentClient() {
+                @Override
+                public StudentDTO getStudent(Long id) {
+                    return new StudentDTO(id, "Ana Petrovic", "ana@example.com", "001/2024");
+                }
+
+                @Override
+                public List<StudentDTO> getStudents(Collection<Long> ids) {
+                    return ids.stream().map(this::getStudent).toList();
+                }
+
+                @Override
+                public ResponseEntity<List<StudentChangeDTO>> changes(long after, int size, String wait,
+                                                                      Request.Options options) {
+                    return ResponseEntity.ok(List.of());
+                }
+            };
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof StudentClient ? stub : bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.benchmarks;
+
+import com.example.enrollments.dto.EnrollmentView;
+import com.example.students.dto.StudentView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Jackson serialization of the list endpoints' response views, as JSON and the binary formats, with Boot-like mappers */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "50", "500"})
+    private int size;
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private List<StudentView> students;
+    private List<EnrollmentView> enrollments;
+
+    @Setup
+    public void setUp() {
+        objectMapper = switch (format) {
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        students = new ArrayList<>(size);
+        enrollments = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            students.add(new StudentView(i, 0L, "Ana Petrovic", "ana" + i + "@example.com",
+                    String.format("%03d/2024", i % 1000)));
+            enrollments.add(new EnrollmentView(i, 0L, i, "DS101", "1/2024"));
+        }
+    }
+
+    @Benchmark
+    public byte[] students() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(students);
+    }
+
+    @Benchmark
+    public byte[] enrollments() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(enrollments);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots a service's Spring context for a benchmark: no web server, no Eureka, private in-memory H2.
+ * Both services ship an {@code application.yml} and only one would be visible on the shared classpath,
+ * so neither is loaded; the persistence settings that matter for throughput are repeated here.
+ */
+final class ServiceContexts {
+
+    private ServiceContexts() {
+    }
+
+    static ConfigurableApplicationContext start(String database, Class<?>... sources) {
+        return new SpringApplicationBuilder(sources)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.config.name=benchmark",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "eureka.client.enabled=false",
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;MODE=LEGACY",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.open-in-view=false",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                        "spring.jpa.properties.hibernate.order_inserts=true",
+                        "students.cache-invalidation.targets=",
+                        "students.feed.enabled=false",
+                        "enrollments.seats.recheck=1h")
+                .run();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.benchmarks;
+
+import com.example.students.StudentsServiceApplication;
+import com.example.students.model.Student;
+import com.example.students.service.DuplicateStudentException;
+import com.example.students.service.StudentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** {@link StudentService#create} against in-memory H2: a new student, and a rejected duplicate email */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentCreateBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private StudentService service;
+
+    @Setup
+    public void start() {
+        context = ServiceContexts.start("students-bench", StudentsServiceApplication.class);
+        service = context.getBean(StudentService.class);
+        service.create(student("taken@example.com", "TAKEN"));
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Student create() {
+        long n = sequence.incrementAndGet();
+        return service.create(student("bench" + n + "@example.com", "IDX-" + n));
+    }
+
+    @Benchmark
+    public Object rejectDuplicateEmail() {
+        try {
+            return service.create(student("taken@example.com", "DUP-" + sequence.incrementAndGet()));
+        } catch (DuplicateStudentException e) {
+            return e;
+        }
+    }
+
+    private static Student student(String email, String indexNumber) {
+        Student s = new Student();
+        s.setFullName("Ana Petrovic");
+        s.setEmail(email);
+        s.setIndexNumber(indexNumber);
+        return s;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.benchmarks;
+
+import com.example.enrollments.dto.EnrollmentDTO;
+import com.example.students.dto.StudentDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/** Bean Validation of the request DTOs, including the Unicode full-name pattern of {@link StudentDTO} */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private final StudentDTO validStudent = new StudentDTO(null,
+            "Đorđe Čolić Šarić", "djordje@example.com", "001/2024");
+    private final StudentDTO invalidStudent = new StudentDTO(null, "ana", "not-an-email", "1/24");
+    private final EnrollmentDTO validEnrollment = new EnrollmentDTO(null, 1L, "DS101", "1/2024");
+
+    private ValidatorFactory factory;
+    private Validator validator;
+
+    @Setup
+    public void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<StudentDTO>> validStudent() {
+        return validator.validate(validStudent);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<StudentDTO>> invalidStudent() {
+        return validator.validate(invalidStudent);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<EnrollmentDTO>> validEnrollment() {
+        return validator.validate(validEnrollment);
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.common.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency and load of every instance requests were sent to, which {@link LatencyAwareLoadBalancer} ranks by. An
+ * instance's cost is its peak-EWMA response time times one more than its requests in flight: a slower response
+ * counts in full at once, a faster one is only blended in, and without responses the estimate decays towards
+ * zero over {@code decay-time}, so an instance that was slow gets tried again. It never drops below the mean age
+ * of the requests still in flight, so an instance that stopped answering grows dearer by the millisecond rather
+ * than keeping the estimate from before. A failed request counts as {@code failure-penalty}, so an instance
+ * failing fast does not look fast. Long polls and streamed request bodies last as long as the client wants
+ * rather than as long as the instance needs; they are neither counted nor timed.
+ * <p>
+ * With nothing in flight, the score of an instance gone from the service's instance list, or idle for a few
+ * decay-times and so decayed to nothing anyway, is dropped (see {@link #prune}); the map follows the registry
+ * rather than keeping every instance that ever answered.
+ */
+public class InstanceScores {
+
+    public enum Strategy { LATENCY, ROUND_ROBIN }
+
+    /** Cost of an instance with requests in flight and no response yet: behind every measured one */
+    private static final double UNMEASURED_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /** Decay-times without a request after which a score is dropped; its latency is below 1% of what it was */
+    private static final int IDLE_DECAYS = 5;
+
+    private final Strategy strategy;
+    private final double decayNanos;
+    private final long failurePenaltyNanos;
+    private final ConcurrentMap<String, Service> services = new ConcurrentHashMap<>();
+
+    public InstanceScores(Strategy strategy, Duration decayTime, Duration failurePenalty) {
+        this.strategy = strategy;
+        this.decayNanos = decayTime.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+    }
+
+    public Strategy strategy() {
+        return strategy;
+    }
+
+    /** A long poll ({@code wait} parameter) or a CSV or NDJSON upload */
+    public static boolean untimed(URI url, HttpHeaders headers) {
+        if (url != null && UriComponentsBuilder.fromUri(url).build().getQueryParams().containsKey("wait")) {
+            return true;
+        }
+        MediaType contentType = headers.getContentType();
+        return contentType != null && (contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                || contentType.isCompatibleWith(MediaType.parseMediaType("text/csv")));
+    }
+
+    /** Counts a request to {@code instance} as in flight; returns its start, to hand to {@link #finish} */
+    public long start(ServiceInstance instance) {
+        long start = System.nanoTime();
+        while (!score(instance).started(start)) {
+            // pruned since we looked it up; the next lookup makes a fresh one
+        }
+        return start;
+    }
+
+    /** Ends a request {@link #start started} at {@code start} and takes its response time as a sample */
+    public void finish(ServiceInstance instance, long start, boolean failed) {
+        Score score = score(instance);
+        score.ended(start);
+        long now = System.nanoTime();
+        score.sample(failed ? Math.max(now - start, failurePenaltyNanos) : now - start, now, failed);
+    }
+
+    /** Ends a request {@link #start started} without a sample, e.g. when the caller went away */
+    public void abandon(ServiceInstance instance, long start) {
+        score(instance).ended(start);
+    }
+
+    public double cost(ServiceInstance instance) {
+        Service service = services.get(instance.getServiceId());
+        Score score = service == null ? null : service.instances.get(key(instance));
+        return score == null ? 0 : score.cost(System.nanoTime());
+    }
+
+    /**
+     * Drops the scores of {@code serviceId}'s instances that are not in {@code current} or have been idle for
+     * {@value #IDLE_DECAYS} decay-times, unless they have requests in flight. Cheap to call with every instance
+     * list: it does the work at most once per decay-time per service.
+     */
+    public void prune(String serviceId, Collection<ServiceInstance> current) {
+        Service service = serviceId == null ? null : services.get(serviceId);
+        long now = System.nanoTime();
+        if (service == null || !service.due(now, (long) decayNanos)) {
+            return;
+        }
+        Set<String> listed = new HashSet<>();
+        for (ServiceInstance instance : current) {
+            listed.add(key(instance));
+        }
+        long idleNanos = (long) (IDLE_DECAYS * decayNanos);
+        // conditional per entry: a score is only removed if it is still the one retired
+        service.instances.entrySet().removeIf(e -> e.getValue().retire(!listed.contains(e.getKey()), now, idleNanos));
+    }
+
+    /** Every instance of every service, cheapest first */
+    public Map<String, List<InstanceScore>> snapshot() {
+        long now = System.nanoTime();
+        Map<String, List<InstanceScore>> snapshot = new LinkedHashMap<>();
+        services.forEach((serviceId, service) -> snapshot.put(serviceId, service.instances.entrySet().stream()
+                .map(e -> e.getValue().view(e.getKey(), now))
+                .sorted(Comparator.comparingDouble(InstanceScore::cost))
+                .toList()));
+        return snapshot;
+    }
+
+    private Score score(ServiceInstance instance) {
+        return services.computeIfAbsent(instance.getServiceId(), id -> new Service())
+                .instances.computeIfAbsent(key(instance), k -> new Score());
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    /** One instance as {@code /actuator/loadbalancer} shows it; times in milliseconds */
+    public record InstanceScore(String instance, double latency, int inFlight, double cost,
+                                long requests, long failures) {
+    }
+
+    private static final class Service {
+
+        final ConcurrentMap<String, Score> instances = new ConcurrentHashMap<>();
+        private final AtomicLong nextPrune = new AtomicLong(System.nanoTime());
+
+        /** Whether this caller should prune now; at most one per {@code interval} is told so */
+        boolean due(long now, long interval) {
+            long next = nextPrune.get();
+            return now - next >= 0 && nextPrune.compareAndSet(next, now + interval);
+        }
+    }
+
+    private final class Score {
+
+        private int inFlight;
+        private long inFlightStarts;
+        private double latencyNanos;
+        private long stamp = System.nanoTime();
+        private long lastActivity = stamp;
+        private long requests;
+        private long failures;
+        private boolean retired;
+
+        /** False if this score was retired, and the request must be counted on its successor */
+        synchronized boolean started(long start) {
+            if (retired) {
+                return false;
+            }
+            inFlight++;
+            inFlightStarts += start;
+            lastActivity = start;
+            return true;
+        }
+
+        synchronized void ended(long start) {
+            inFlight--;
+            inFlightStarts -= start;
+            lastActivity = System.nanoTime();
+        }
+
+        /** Retires the score if nothing is in flight and it is {@code unlisted} or was idle for {@code idleNanos} */
+        synchronized boolean retire(boolean unlisted, long now, long idleNanos) {
+            if (inFlight == 0 && (unlisted || now - lastActivity > idleNanos)) {
+                retired = true;
+            }
+            return retired;
+        }
+
+        synchronized void sample(long rttNanos, long now, boolean failed) {
+            double weight = Math.exp(-(now - stamp) / decayNanos);
+            latencyNanos = rttNanos > latencyNanos ? rttNanos : latencyNanos * weight + rttNanos * (1 - weight);
+            stamp = now;
+            requests++;
+            if (failed) {
+                failures++;
+            }
+        }
+
+        synchronized double latency(long now) {
+            double latency = latencyNanos * Math.exp(-(now - stamp) / decayNanos);
+            // the sum of the ages, exact even when the sum of the start times wraps around
+            return inFlight > 0 ? Math.max(latency, (double) (inFlight * now - inFlightStarts) / inFlight) : latency;
+        }
+
+        synchronized double cost(long now) {
+            return requests == 0 && inFlight > 0 ? UNMEASURED_NANOS + inFlight : latency(now) * (inFlight + 1);
+        }
+
+        synchronized InstanceScore view(String instance, long now) {
+            return new InstanceScore(instance, latency(now) / 1e6, inFlight, cost(now) / 1e6, requests, failures);
+        }
+    }
+}
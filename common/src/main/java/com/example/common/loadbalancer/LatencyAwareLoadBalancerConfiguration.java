@@ -0,0 +1,29 @@
+package com.example.common.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load balancer of every service called through Spring Cloud LoadBalancer, by
+ * {@link LoadBalancingProperties#getStrategy() strategy}: {@code latency} ({@link LatencyAwareLoadBalancer}) or
+ * {@code round-robin}, Spring's default. Not a {@code @Configuration}: it is registered once per service, in
+ * that service's own context, through {@link LatencyAwareLoadBalancing}'s {@code @LoadBalancerClients}.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(Environment environment,
+                                                                  LoadBalancerClientFactory factory,
+                                                                  InstanceScores scores) {
+        String serviceId = LoadBalancerClientFactory.getName(environment);
+        var suppliers = factory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+        return scores.strategy() == InstanceScores.Strategy.ROUND_ROBIN
+                ? new RoundRobinLoadBalancer(suppliers, serviceId)
+                : new LatencyAwareLoadBalancer(suppliers, scores);
+    }
+}
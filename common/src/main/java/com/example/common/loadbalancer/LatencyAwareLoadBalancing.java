@@ -0,0 +1,31 @@
+package com.example.common.loadbalancer;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * {@link LatencyAwareLoadBalancerConfiguration} for every service called through Spring Cloud LoadBalancer, the
+ * {@link InstanceScores} it ranks by and {@code /actuator/loadbalancer}. An auto-configuration that applies once
+ * the application declares its {@link LoadBalancingProperties}; feeding the scores is up to the application,
+ * which knows how its requests are sent.
+ */
+@AutoConfiguration
+@ConditionalOnClass(ReactorServiceInstanceLoadBalancer.class)
+@ConditionalOnBean(LoadBalancingProperties.class)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LatencyAwareLoadBalancing {
+
+    @Bean
+    InstanceScores instanceScores(LoadBalancingProperties properties) {
+        return new InstanceScores(properties.getStrategy(), properties.getDecayTime(), properties.getFailurePenalty());
+    }
+
+    @Bean
+    LoadBalancerEndpoint loadBalancerEndpoint(InstanceScores scores) {
+        return new LoadBalancerEndpoint(scores);
+    }
+}
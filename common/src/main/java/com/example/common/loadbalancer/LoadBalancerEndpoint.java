@@ -0,0 +1,23 @@
+package com.example.common.loadbalancer;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+import java.util.Map;
+
+/** {@code /actuator/loadbalancer}: the {@link InstanceScores} of every instance, per service */
+@Endpoint(id = "loadbalancer")
+public class LoadBalancerEndpoint {
+
+    private final InstanceScores scores;
+
+    public LoadBalancerEndpoint(InstanceScores scores) {
+        this.scores = scores;
+    }
+
+    @ReadOperation
+    public Map<String, List<InstanceScores.InstanceScore>> scores() {
+        return scores.snapshot();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.common.loadbalancer;
+
+import java.time.Duration;
+
+/**
+ * Settings of {@link LatencyAwareLoadBalancing}. Each service binds them under its own prefix with a
+ * {@code @Bean @ConfigurationProperties("...")} method; declaring that bean is what switches the load balancer on.
+ */
+public class LoadBalancingProperties {
+
+    /** latency: {@link LatencyAwareLoadBalancer}; round-robin: Spring's default */
+    private InstanceScores.Strategy strategy = InstanceScores.Strategy.LATENCY;
+
+    /** Time over which a response time fades out of an instance's score */
+    private Duration decayTime = Duration.ofSeconds(10);
+
+    /** Response time a failed request counts as, at least */
+    private Duration failurePenalty = Duration.ofSeconds(1);
+
+    public InstanceScores.Strategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(InstanceScores.Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public Duration getDecayTime() {
+        return decayTime;
+    }
+
+    public void setDecayTime(Duration decayTime) {
+        this.decayTime = decayTime;
+    }
+
+    public Duration getFailurePenalty() {
+        return failurePenalty;
+    }
+
+    public void setFailurePenalty(Duration failurePenalty) {
+        this.failurePenalty = failurePenalty;
+    }
+}
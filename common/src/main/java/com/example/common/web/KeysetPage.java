@@ -0,0 +1,33 @@
+package com.example.common.web;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keyset pagination as the list endpoints answer it: a page of up to {@code size} rows in id order, and when the
+ * page is full the last id in {@value #NEXT_CURSOR_HEADER}, to be sent back as {@code after}. The header is
+ * absent on the last page.
+ */
+public final class KeysetPage {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private KeysetPage() {
+    }
+
+    /** The requested page size within {@code [1, maxSize]}, or {@code defaultSize} when none was requested */
+    public static int size(Integer requested, int defaultSize, int maxSize) {
+        return requested == null ? defaultSize : Math.max(1, Math.min(requested, maxSize));
+    }
+
+    /** 200 with {@code page}, and the cursor after its last row when it holds {@code size} rows */
+    public static <T> ResponseEntity<List<T>> of(List<T> page, int size, ToLongFunction<? super T> id) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!page.isEmpty() && page.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(id.applyAsLong(page.get(page.size() - 1))));
+        }
+        return response.body(page);
+    }
+}
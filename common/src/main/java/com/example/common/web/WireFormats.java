@@ -0,0 +1,86 @@
+package com.example.common.web;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary alternatives to JSON, picked through {@code Accept} and {@code Content-Type}: Smile
+ * ({@value #SMILE_VALUE}) and CBOR ({@value MediaType#APPLICATION_CBOR_VALUE}). Both mappers come from Boot's
+ * Jackson builder, so they write the same fields and dates as the JSON converter, only more compactly. An
+ * auto-configuration, so every servlet service with both formats on its classpath gets it.
+ */
+@AutoConfiguration(after = JacksonAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass({SmileFactory.class, CBORFactory.class})
+public class WireFormats {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+
+    /** Formats in the order a wildcard {@code Accept} gets them, with their ETag suffixes */
+    private static final Map<MediaType, String> SUFFIXES = new LinkedHashMap<>();
+
+    static {
+        SUFFIXES.put(MediaType.APPLICATION_JSON, "json");
+        SUFFIXES.put(SMILE, "smile");
+        SUFFIXES.put(MediaType.APPLICATION_CBOR, "cbor");
+    }
+
+    /**
+     * Strong ETag of the representation at {@code version} in the format {@code accept} picks, e.g.
+     * {@code "5-smile"}. Each format is a different body, so each gets its own ETag; a response carrying it
+     * should also say {@code Vary: Accept}.
+     */
+    public static String etag(long version, String accept) {
+        return "\"" + version + "-" + suffix(accept) + "\"";
+    }
+
+    /** The format content negotiation settles on: the most specific, highest-quality type one of them fits */
+    static String suffix(String accept) {
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(accept == null || accept.isBlank()
+                    ? List.of(MediaType.ALL) : MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return "json";
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            for (Map.Entry<MediaType, String> format : SUFFIXES.entrySet()) {
+                if (type.isCompatibleWith(format.getKey())) {
+                    return format.getValue();
+                }
+            }
+        }
+        return "json";
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
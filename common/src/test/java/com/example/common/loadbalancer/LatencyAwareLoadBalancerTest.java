@@ -0,0 +1,147 @@
+package com.example.common.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+class LatencyAwareLoadBalancerTest {
+
+    private final ServiceInstance a = instance("a");
+    private final ServiceInstance b = instance("b");
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSteerAwayFromAnInstanceThatFailed() {
+        InstanceScores scores = scores(Duration.ofSeconds(10));
+        scores.finish(a, scores.start(a), false);
+        scores.finish(b, scores.start(b), true);
+        LatencyAwareLoadBalancer balancer = new LatencyAwareLoadBalancer(mock(ObjectProvider.class), scores);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(balancer.choose(List.of(a, b)).getServer()).isSameAs(a);
+        }
+        assertThat(scores.snapshot().get("students-service"))
+                .extracting(InstanceScores.InstanceScore::instance, InstanceScores.InstanceScore::failures)
+                .containsExactly(tuple("a:8080", 0L), tuple("b:8080", 1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSteerAwayFromAnInstanceWithRequestsInFlight() {
+        InstanceScores scores = scores(Duration.ofSeconds(10));
+        long start = scores.start(a);
+        LatencyAwareLoadBalancer balancer = new LatencyAwareLoadBalancer(mock(ObjectProvider.class), scores);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(balancer.choose(List.of(a, b)).getServer()).isSameAs(b);
+        }
+        scores.abandon(a, start);
+        assertThat(scores.cost(a)).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSteerAwayFromAnInstanceThatStoppedAnswering() throws InterruptedException {
+        InstanceScores scores = scores(Duration.ofMillis(10));
+        scores.finish(a, scores.start(a), false);
+        scores.finish(b, scores.start(b), false);
+        scores.start(a);
+        Thread.sleep(200);
+        LatencyAwareLoadBalancer balancer = new LatencyAwareLoadBalancer(mock(ObjectProvider.class), scores);
+
+        assertThat(scores.cost(a)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(400));
+        for (int i = 0; i < 100; i++) {
+            assertThat(balancer.choose(List.of(a, b)).getServer()).isSameAs(b);
+        }
+    }
+
+    @Test
+    void shouldForgetSlownessOverTheDecayTime() throws InterruptedException {
+        InstanceScores scores = scores(Duration.ofMillis(50));
+        scores.finish(b, scores.start(b), true);
+        assertThat(scores.cost(b)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(900));
+
+        Thread.sleep(500);
+
+        assertThat(scores.cost(b)).isLessThan(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @Test
+    void shouldForgetInstancesGoneFromTheListOnceNothingIsInFlight() throws InterruptedException {
+        InstanceScores scores = scores(Duration.ofMillis(50));
+        scores.finish(a, scores.start(a), false);
+        long start = scores.start(b);
+
+        scores.prune("students-service", List.of(a));
+        assertThat(instances(scores)).containsExactly("a:8080", "b:8080");
+
+        scores.finish(b, start, false);
+        Thread.sleep(60);
+        scores.prune("students-service", List.of(a));
+        assertThat(instances(scores)).containsExactly("a:8080");
+    }
+
+    @Test
+    void shouldForgetInstancesIdleForSeveralDecayTimes() throws InterruptedException {
+        InstanceScores scores = scores(Duration.ofMillis(50));
+        scores.finish(a, scores.start(a), false);
+        scores.finish(b, scores.start(b), false);
+
+        Thread.sleep(300);
+        scores.finish(b, scores.start(b), false);
+        scores.prune("students-service", List.of(a, b));
+
+        assertThat(instances(scores)).containsExactly("b:8080");
+        scores.finish(a, scores.start(a), true);
+        assertThat(scores.snapshot().get("students-service"))
+                .extracting(InstanceScores.InstanceScore::instance, InstanceScores.InstanceScore::requests)
+                .containsExactlyInAnyOrder(tuple("a:8080", 1L), tuple("b:8080", 2L));
+    }
+
+    @Test
+    void shouldPruneAtMostOncePerDecayTime() {
+        InstanceScores scores = scores(Duration.ofSeconds(10));
+        scores.finish(a, scores.start(a), false);
+        scores.prune("students-service", List.of(a));
+
+        scores.finish(b, scores.start(b), false);
+        scores.prune("students-service", List.of(a));
+
+        assertThat(instances(scores)).containsExactlyInAnyOrder("a:8080", "b:8080");
+    }
+
+    @Test
+    void shouldNeitherCountNorTimeLongPollsAndUploads() {
+        HttpHeaders csv = new HttpHeaders();
+        csv.setContentType(MediaType.parseMediaType("text/csv"));
+
+        assertThat(InstanceScores.untimed(URI.create("http://students-service/students/changes?after=0&wait=20s"),
+                new HttpHeaders())).isTrue();
+        assertThat(InstanceScores.untimed(URI.create("http://students-service/students/import"), csv)).isTrue();
+        assertThat(InstanceScores.untimed(URI.create("http://students-service/students/7"), new HttpHeaders())).isFalse();
+    }
+
+    private static List<String> instances(InstanceScores scores) {
+        return scores.snapshot().get("students-service").stream().map(InstanceScores.InstanceScore::instance).toList();
+    }
+
+    private static InstanceScores scores(Duration decayTime) {
+        return new InstanceScores(InstanceScores.Strategy.LATENCY, decayTime, Duration.ofSeconds(1));
+    }
+
+    private static ServiceInstance instance(String host) {
+        return new DefaultServiceInstance(host, "students-service", host, 8080, false);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.common.web;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WireFormatsTest {
+
+    @Test
+    void shouldTagTheETagWithTheNegotiatedFormat() {
+        assertThat(WireFormats.etag(5, "application/x-jackson-smile")).isEqualTo("\"5-smile\"");
+        assertThat(WireFormats.etag(5, "application/cbor")).isEqualTo("\"5-cbor\"");
+        assertThat(WireFormats.etag(5, "application/json")).isEqualTo("\"5-json\"");
+    }
+
+    @Test
+    void shouldPickLikeContentNegotiation() {
+        assertThat(WireFormats.suffix(null)).isEqualTo("json");
+        assertThat(WireFormats.suffix("*/*")).isEqualTo("json");
+        assertThat(WireFormats.suffix("text/html, application/*;q=0.8")).isEqualTo("json");
+        assertThat(WireFormats.suffix("application/json;q=0.5, application/x-jackson-smile")).isEqualTo("smile");
+        assertThat(WireFormats.suffix("application/*, application/cbor")).isEqualTo("cbor");
+        assertThat(WireFormats.suffix("not a type")).isEqualTo("json");
+    }
+}
@@ -1,11 +1,29 @@
 package com.example.enrollments;
+import com.example.common.loadbalancer.LoadBalancingProperties;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Bean;
 @SpringBootApplication
 @EnableFeignClients
 public class EnrollmentsServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(EnrollmentsServiceApplication.class, args);
     }
+
+    /** Switches on the latency-aware load balancer of calls to students-service */
+    @Bean
+    @ConfigurationProperties("students.client.load-balancer")
+    LoadBalancingProperties loadBalancingProperties() {
+        return new LoadBalancingProperties();
+    }
+
+    /** Even with lazy initialization Hibernate boots with the app, not inside the first request */
+    @Bean
+    static LazyInitializationExcludeFilter eagerEntityManagerFactory() {
+        return LazyInitializationExcludeFilter.forBeanTypes(EntityManagerFactory.class);
+    }
 }
\ No newline at end of file
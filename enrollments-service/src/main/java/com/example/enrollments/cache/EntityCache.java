@@ -0,0 +1,90 @@
+package com.example.enrollments.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Hibernate second-level cache region for {@code Enrollment} rows, a bounded Caffeine cache behind JCache, so
+ * {@code GET /enrollments/{id}} and updates find the row without a SELECT. Writes through this instance keep
+ * the region current; enrollments have no change feed, so a row written by another instance may be served
+ * from here for up to {@code enrollments.entity-cache.ttl}. Conditional GETs compare against the version in
+ * the table, and a stale row cannot be written back because of its {@code @Version}.
+ */
+@Component
+public class EntityCache implements HibernatePropertiesCustomizer, MeterBinder {
+
+    public static final String ENROLLMENT_REGION = "enrollment";
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final CacheManager cacheManager;
+
+    public EntityCache(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                       @Value("${enrollments.entity-cache.max-size:10000}") long maxSize,
+                       @Value("${enrollments.entity-cache.ttl:1m}") Duration ttl) {
+        this.entityManagerFactory = entityManagerFactory;
+        // not the provider's default manager: Hibernate closes it with the session factory
+        this.cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("enrollments-entity-cache-" + System.identityHashCode(this)),
+                        getClass().getClassLoader());
+        cacheManager.createCache(ENROLLMENT_REGION, new CaffeineConfiguration<>()
+                .setStoreByValue(false)
+                .setMaximumSize(OptionalLong.of(maxSize))
+                .setExpireAfterWrite(OptionalLong.of(ttl.toNanos())));
+    }
+
+    @Override
+    public void customize(Map<String, Object> properties) {
+        properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+        properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+        properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+    }
+
+    /** Hits, misses, puts and hit ratio of the region as {@code hibernate.cache.*{region="enrollment"}} */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter("hibernate.cache.requests", CacheRegionStatistics::getHitCount).tag("result", "hit").register(registry);
+        counter("hibernate.cache.requests", CacheRegionStatistics::getMissCount).tag("result", "miss").register(registry);
+        counter("hibernate.cache.puts", CacheRegionStatistics::getPutCount).register(registry);
+        Gauge.builder("hibernate.cache.hit.ratio", this, self -> {
+                    CacheRegionStatistics stats = self.statistics();
+                    long requests = stats.getHitCount() + stats.getMissCount();
+                    return requests == 0 ? Double.NaN : (double) stats.getHitCount() / requests;
+                })
+                .tag("region", ENROLLMENT_REGION)
+                .description("Share of second-level cache lookups answered from the cache")
+                .register(registry);
+    }
+
+    private FunctionCounter.Builder<EntityCache> counter(String name, ToLongFunction<CacheRegionStatistics> count) {
+        return FunctionCounter.builder(name, this, self -> count.applyAsLong(self.statistics()))
+                .tag("region", ENROLLMENT_REGION);
+    }
+
+    private CacheRegionStatistics statistics() {
+        return entityManagerFactory.getObject().unwrap(SessionFactory.class).getStatistics()
+                .getDomainDataRegionStatistics(ENROLLMENT_REGION);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.enrollments.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Responses of writes sent with an {@code Idempotency-Key}, so a client retrying after a timeout gets the
+ * original outcome instead of a second insert. The first request with a key runs; requests repeating the key
+ * while it runs wait for it, and later ones get the stored response at once, marked with
+ * {@value #REPLAYED_HEADER}. Only successful responses are kept: a failure is handed to everyone waiting and
+ * then forgotten, so a retry after a 503 runs again.
+ * <p>
+ * The store is bounded ({@code enrollments.idempotency.max-size}) and forgets keys after
+ * {@code enrollments.idempotency.ttl}. It is per instance; retries are expected to reach the same one.
+ */
+@Component
+public class IdempotencyStore implements MeterBinder {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Entry> results;
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder replays = new LongAdder();
+
+    public IdempotencyStore(@Value("${enrollments.idempotency.max-size:100000}") long maxSize,
+                            @Value("${enrollments.idempotency.ttl:24h}") Duration ttl) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Runs {@code call} once per {@code key}; without a key it simply runs. {@code request} identifies what the
+     * key was first used for (e.g. method, path and body); reusing a key for a different request is a 422.
+     */
+    public <T> CompletableFuture<ResponseEntity<T>> execute(String key, Object request,
+                                                            Supplier<CompletableFuture<ResponseEntity<T>>> call) {
+        if (key == null) {
+            return call.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        Entry mine = new Entry(request, new CompletableFuture<>());
+        Entry existing = results.asMap().putIfAbsent(key, mine);
+        if (existing != null) {
+            if (!existing.request().equals(request)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        KEY_HEADER + " " + key + " was already used for a different request");
+            }
+            replays.increment();
+            return existing.response().thenApply(IdempotencyStore::<T>replayed);
+        }
+
+        executions.increment();
+        CompletableFuture<ResponseEntity<T>> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((response, error) -> {
+            if (error != null || !response.getStatusCode().is2xxSuccessful()) {
+                results.asMap().remove(key, mine);
+            }
+            if (error != null) {
+                mine.response().completeExceptionally(error);
+            } else {
+                mine.response().complete(response);
+            }
+        });
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ResponseEntity<T> replayed(ResponseEntity<?> original) {
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body((T) original.getBody());
+    }
+
+    /** Requests that ran as {@code idempotency.requests{outcome=executed}}, answered from the store as {@code replayed} */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("idempotency.requests", executions, LongAdder::sum)
+                .description("Writes sent with an Idempotency-Key")
+                .tag("outcome", "executed")
+                .register(registry);
+        FunctionCounter.builder("idempotency.requests", replays, LongAdder::sum)
+                .description("Writes sent with an Idempotency-Key")
+                .tag("outcome", "replayed")
+                .register(registry);
+        Gauge.builder("idempotency.keys", results, Cache::estimatedSize)
+                .description("Idempotency keys currently remembered")
+                .register(registry);
+    }
+
+    private record Entry(Object request, CompletableFuture<ResponseEntity<?>> response) {}
+}
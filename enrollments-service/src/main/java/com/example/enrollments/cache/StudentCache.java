@@ -0,0 +1,147 @@
+package com.example.enrollments.cache;
+
+import com.example.enrollments.dto.StudentDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded near-cache of {@link StudentDTO}s in front of {@code StudentClient}.
+ * Entries expire after {@code students.cache.ttl} and are evicted early when students-service
+ * reports a change (see {@code StudentCacheController}). Only found students are cached.
+ * <p>
+ * A load started before an eviction of its id may return the old student; such a result is handed to the
+ * caller but not cached. Every eviction bumps a stamp (one per stripe of ids), and a loaded student is only
+ * put if its stripe's stamp is still the one read before the load.
+ */
+@Component
+public class StudentCache implements MeterBinder {
+
+    private static final int STRIPES = 1024;
+
+    private final Cache<Long, StudentDTO> cache;
+    private final AtomicLongArray evictionStamps = new AtomicLongArray(STRIPES);
+    private final LongAdder invalidations = new LongAdder();
+
+    public StudentCache(@Value("${students.cache.max-size:10000}") long maxSize,
+                        @Value("${students.cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Cached student or the result of {@code loader}. The loader runs outside the cache's
+     * compute lock on purpose: a slow remote call must not block lookups of unrelated ids.
+     */
+    public StudentDTO get(Long id, Function<Long, StudentDTO> loader) {
+        StudentDTO cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = stamp(id);
+        StudentDTO loaded = loader.apply(id);
+        if (loaded != null) {
+            putUnlessEvicted(id, loaded, stamp);
+        }
+        return loaded;
+    }
+
+    /** Asynchronous {@link #get}: a hit completes immediately, a miss is cached once {@code loader} completes */
+    public CompletableFuture<StudentDTO> getAsync(Long id, Function<Long, CompletableFuture<StudentDTO>> loader) {
+        StudentDTO cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long stamp = stamp(id);
+        return loader.apply(id).thenApply(loaded -> {
+            if (loaded != null) {
+                putUnlessEvicted(id, loaded, stamp);
+            }
+            return loaded;
+        });
+    }
+
+    /** Cached students for {@code ids}; all misses are resolved with a single {@code batchLoader} call */
+    public Map<Long, StudentDTO> getAll(Collection<Long> ids, Function<Set<Long>, List<StudentDTO>> batchLoader) {
+        Map<Long, StudentDTO> result = new HashMap<>(cache.getAllPresent(ids));
+        Set<Long> missing = new HashSet<>(ids);
+        missing.removeAll(result.keySet());
+        if (!missing.isEmpty()) {
+            Map<Long, Long> stamps = new HashMap<>();
+            for (Long id : missing) {
+                stamps.put(id, stamp(id));
+            }
+            for (StudentDTO student : batchLoader.apply(missing)) {
+                Long stamp = stamps.get(student.id());
+                if (stamp != null) {
+                    putUnlessEvicted(student.id(), student, stamp);
+                }
+                result.put(student.id(), student);
+            }
+        }
+        return result;
+    }
+
+    public void evict(Long id) {
+        // bumped first: a load that puts between the two sees the new stamp, one that put before is invalidated
+        evictionStamps.incrementAndGet(stripe(id));
+        cache.invalidate(id);
+        invalidations.increment();
+    }
+
+    private long stamp(Long id) {
+        return evictionStamps.get(stripe(id));
+    }
+
+    /** Checked under the entry's lock, so an eviction cannot slip in between the check and the put */
+    private void putUnlessEvicted(Long id, StudentDTO loaded, long stamp) {
+        cache.asMap().compute(id, (key, current) -> evictionStamps.get(stripe(key)) == stamp ? loaded : current);
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id * 0x9E3779B97F4A7C15L) & (STRIPES - 1);
+    }
+
+    /** Explicit evictions requested by students-service (size/TTL evictions are in {@link #stats()}) */
+    public long invalidationCount() {
+        return invalidations.sum();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /** Hit/miss/eviction metrics as {@code cache.*{cache="students"}} plus the push invalidations */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "students");
+        FunctionCounter.builder("students.cache.invalidations", invalidations, LongAdder::sum)
+                .description("Evictions requested by students-service")
+                .register(registry);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.enrollments.cache;
+
+import com.example.enrollments.dto.StudentDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Single-flight for student lookups: concurrent callers asking for the same id while a call is
+ * in flight wait for that call and share its result or failure instead of issuing their own.
+ * Nothing is retained once the call completes; caching is {@link StudentCache}'s job.
+ */
+@Component
+public class StudentRequestCoalescer implements MeterBinder {
+
+    private final ConcurrentMap<Long, CompletableFuture<StudentDTO>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder leaderCalls = new LongAdder();
+    private final LongAdder coalescedCalls = new LongAdder();
+
+    public StudentDTO get(Long id, Function<Long, StudentDTO> loader) {
+        CompletableFuture<StudentDTO> mine = new CompletableFuture<>();
+        CompletableFuture<StudentDTO> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            coalescedCalls.increment();
+            return await(running);
+        }
+
+        leaderCalls.increment();
+        try {
+            StudentDTO result = loader.apply(id);
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    /**
+     * Asynchronous {@link #get}: the leader starts {@code loader} and every caller gets its own view of
+     * the shared result, so one caller cancelling does not affect the others. Sync and async callers
+     * for the same id share a single in-flight call.
+     */
+    public CompletableFuture<StudentDTO> getAsync(Long id, Function<Long, CompletableFuture<StudentDTO>> loader) {
+        CompletableFuture<StudentDTO> mine = new CompletableFuture<>();
+        CompletableFuture<StudentDTO> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            coalescedCalls.increment();
+            return running.copy();
+        }
+
+        leaderCalls.increment();
+        CompletableFuture<StudentDTO> call;
+        try {
+            call = loader.apply(id);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((result, error) -> {
+            inFlight.remove(id, mine);
+            if (error != null) {
+                mine.completeExceptionally(error);
+            } else {
+                mine.complete(result);
+            }
+        });
+        return mine.copy();
+    }
+
+    private static StudentDTO await(CompletableFuture<StudentDTO> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /** Calls that actually went to students-service */
+    public long leaderCount() {
+        return leaderCalls.sum();
+    }
+
+    /** Calls that piggy-backed on an in-flight call for the same id */
+    public long coalescedCount() {
+        return coalescedCalls.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("students.lookups", leaderCalls, LongAdder::sum)
+                .description("Student lookups that missed the near-cache")
+                .tag("outcome", "remote")
+                .register(registry);
+        FunctionCounter.builder("students.lookups", coalescedCalls, LongAdder::sum)
+                .description("Student lookups that missed the near-cache")
+                .tag("outcome", "coalesced")
+                .register(registry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.enrollments.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Enrolls one student in several courses at once. Courses are validated one by one
+ * so a single bad entry does not reject the whole request.
+ */
+public record BulkEnrollmentDTO(
+
+        @NotNull(message = "Student ID cannot be null")
+        @Positive(message = "Student ID must be a positive number")
+        Long studentId,
+
+        @NotEmpty(message = "At least one course is required")
+        @Size(max = 20, message = "At most 20 courses per request")
+        List<@NotNull(message = "Course cannot be null") CourseSelectionDTO> courses
+) {}
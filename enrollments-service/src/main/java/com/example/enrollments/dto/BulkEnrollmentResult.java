@@ -0,0 +1,20 @@
+package com.example.enrollments.dto;
+
+import java.util.List;
+
+/** Per-course outcome of a bulk enrollment, in request order. */
+public record BulkEnrollmentResult(Long studentId, List<Item> items) {
+
+    public enum Status { CREATED, INVALID, DUPLICATE, FULL }
+
+    public record Item(String courseCode, String semester, Status status, Long enrollmentId, String message) {
+
+        public static Item created(CourseSelectionDTO course, Long enrollmentId) {
+            return new Item(course.courseCode(), course.semester(), Status.CREATED, enrollmentId, null);
+        }
+
+        public static Item rejected(CourseSelectionDTO course, Status status, String message) {
+            return new Item(course.courseCode(), course.semester(), status, null, message);
+        }
+    }
+}
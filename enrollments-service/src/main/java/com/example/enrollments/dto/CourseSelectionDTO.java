@@ -0,0 +1,22 @@
+package com.example.enrollments.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+/** One course of a {@link BulkEnrollmentDTO}; same rules as the matching fields of {@link EnrollmentDTO}. */
+public record CourseSelectionDTO(
+
+        @NotBlank(message = "Course code cannot be blank")
+        @Pattern(
+                regexp = "^[A-Z]{2,4}\\d{2,4}$",
+                message = "Course code must be in format like 'DS101' or 'CS50' (2–4 uppercase letters followed by 2–4 digits)"
+        )
+        String courseCode,
+
+        @NotBlank(message = "Semester cannot be blank")
+        @Pattern(
+                regexp = "^\\d{1}/\\d{4}$",
+                message = "Semester must follow format like '1/2022'"
+        )
+        String semester
+) {}
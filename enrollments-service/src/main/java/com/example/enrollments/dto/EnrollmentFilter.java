@@ -0,0 +1,8 @@
+package com.example.enrollments.dto;
+
+/** Optional server-side filters for enrollment listings; {@code null} means "any". */
+public record EnrollmentFilter(
+        Long studentId,
+        String courseCode,
+        String semester
+) {}
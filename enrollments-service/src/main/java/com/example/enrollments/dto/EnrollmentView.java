@@ -0,0 +1,14 @@
+package com.example.enrollments.dto;
+
+import com.example.enrollments.model.Enrollment;
+
+/**
+ * An enrollment as the API returns it, in every format. Responses are written from this record rather than
+ * from the entity, so serializers never reflect over Hibernate state.
+ */
+public record EnrollmentView(Long id, Long version, Long studentId, String courseCode, String semester) {
+
+    public static EnrollmentView of(Enrollment e) {
+        return new EnrollmentView(e.getId(), e.getVersion(), e.getStudentId(), e.getCourseCode(), e.getSemester());
+    }
+}
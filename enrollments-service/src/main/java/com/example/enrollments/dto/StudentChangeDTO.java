@@ -0,0 +1,10 @@
+package com.example.enrollments.dto;
+
+/** One entry of students-service's change feed: the latest state of a student, or a tombstone if deleted. */
+public record StudentChangeDTO(long position, Long studentId, boolean deleted, Long version,
+                               String fullName, String email, String indexNumber) {
+
+    public StudentDTO student() {
+        return new StudentDTO(studentId, fullName, email, indexNumber);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.enrollments.feign;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts circuit-breaker state transitions as {@code resilience4j.circuitbreaker.transitions{name,from,to}}.
+ * The stock resilience4j metrics only expose the current state, which hides a breaker that flaps
+ * between two scrapes.
+ */
+@Component
+public class CircuitBreakerTransitionMetrics implements RegistryEventConsumer<CircuitBreaker> {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreakerTransitionMetrics.class);
+    private final MeterRegistry registry;
+
+    public CircuitBreakerTransitionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void onEntryAddedEvent(EntryAddedEvent<CircuitBreaker> event) {
+        CircuitBreaker circuitBreaker = event.getAddedEntry();
+        circuitBreaker.getEventPublisher().onStateTransition(transition -> {
+            CircuitBreaker.StateTransition change = transition.getStateTransition();
+            log.warn("Circuit breaker {} moved {} -> {}", circuitBreaker.getName(), change.getFromState(), change.getToState());
+            registry.counter("resilience4j.circuitbreaker.transitions",
+                    "name", circuitBreaker.getName(),
+                    "from", change.getFromState().name(),
+                    "to", change.getToState().name()).increment();
+        });
+    }
+
+    @Override
+    public void onEntryRemovedEvent(EntryRemovedEvent<CircuitBreaker> event) {
+    }
+
+    @Override
+    public void onEntryReplacedEvent(EntryReplacedEvent<CircuitBreaker> event) {
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.enrollments.feign;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.DefaultHttpClientConnectionOperator;
+import org.apache.hc.client5.http.impl.io.ManagedHttpClientConnectionFactory;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.client5.http.io.ManagedHttpClientConnection;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.pool.DisposalCallback;
+import org.apache.hc.core5.pool.LaxConnPool;
+import org.apache.hc.core5.pool.ManagedConnPool;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.pool.StrictConnPool;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration.HttpClientBuilderCustomizer;
+import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool of the Feign clients' Apache HttpClient 5 transport, in place of the one Spring Cloud OpenFeign
+ * would build from the same {@code spring.cloud.openfeign.httpclient.*} settings: at most {@code max-connections}
+ * in total and {@code max-connections-per-route} to each students-service instance, each kept alive for reuse
+ * until idle for {@code students.client.pool.idle-timeout} or older than {@code time-to-live}. A call waits at most
+ * {@code hc5.connection-request-timeout} for a free connection. What the stock manager does not show is measured
+ * here: how long leases wait and how many connections are opened and closed.
+ */
+@Component
+public class FeignConnectionPool extends PoolingHttpClientConnectionManager
+        implements HttpClientBuilderCustomizer, MeterBinder {
+
+    static final String NAME = "feign";
+
+    private final Duration idleTimeout;
+    private final LongAdder opened;
+    private final LongAdder closed;
+    private volatile Timer leaseWait;
+    private volatile Timer leaseTimeouts;
+
+    @Autowired
+    public FeignConnectionPool(FeignHttpClientProperties properties,
+                               @Value("${students.client.pool.idle-timeout:30s}") Duration idleTimeout,
+                               @Value("${students.client.pool.validate-after-inactivity:2s}") Duration validateAfterInactivity) {
+        this(properties, idleTimeout, validateAfterInactivity, new LongAdder(), new LongAdder());
+    }
+
+    // the counters are handed to the pool and connection factory, which must exist before the superclass does
+    private FeignConnectionPool(FeignHttpClientProperties properties, Duration idleTimeout,
+                                Duration validateAfterInactivity, LongAdder opened, LongAdder closed) {
+        super(new DefaultHttpClientConnectionOperator(RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                        .build(), null, null),
+                pool(properties, closed),
+                socket -> {
+                    ManagedHttpClientConnection connection = ManagedHttpClientConnectionFactory.INSTANCE.createConnection(socket);
+                    opened.increment();
+                    return connection;
+                });
+        this.idleTimeout = idleTimeout;
+        this.opened = opened;
+        this.closed = closed;
+        FeignHttpClientProperties.Hc5Properties hc5 = properties.getHc5();
+        setDefaultSocketConfig(SocketConfig.custom()
+                .setSoTimeout(Timeout.of(hc5.getSocketTimeout(), hc5.getSocketTimeoutUnit()))
+                .build());
+        // a connection the server dropped while idle is found here, before a request is written to it
+        setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivity.toMillis()))
+                .build());
+    }
+
+    // every discarded connection passes the pool's disposal callback once, whatever closed it
+    private static ManagedConnPool<HttpRoute, ManagedHttpClientConnection> pool(FeignHttpClientProperties properties,
+                                                                                LongAdder closed) {
+        TimeValue timeToLive = TimeValue.of(properties.getTimeToLive(), properties.getTimeToLiveUnit());
+        PoolReusePolicy reuse = PoolReusePolicy.valueOf(properties.getHc5().getPoolReusePolicy().name());
+        DisposalCallback<ManagedHttpClientConnection> dispose = (connection, mode) -> {
+            closed.increment();
+            connection.close(mode);
+        };
+        return switch (PoolConcurrencyPolicy.valueOf(properties.getHc5().getPoolConcurrencyPolicy().name())) {
+            case STRICT -> new StrictConnPool<>(properties.getMaxConnectionsPerRoute(), properties.getMaxConnections(),
+                    timeToLive, reuse, dispose, null);
+            case LAX -> new LaxConnPool<>(properties.getMaxConnectionsPerRoute(), timeToLive, reuse, dispose, null);
+        };
+    }
+
+    /** Closes connections idle for longer than {@code idleTimeout}, before students-service's Tomcat would */
+    @Override
+    public void customize(HttpClientBuilder builder) {
+        builder.evictIdleConnections(TimeValue.ofMilliseconds(idleTimeout.toMillis()));
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest lease = super.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                long start = System.nanoTime();
+                try {
+                    ConnectionEndpoint endpoint = lease.get(timeout);
+                    record(leaseWait, start);
+                    return endpoint;
+                } catch (TimeoutException e) {
+                    record(leaseTimeouts, start);
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return lease.cancel();
+            }
+        };
+    }
+
+    private static void record(Timer timer, long start) {
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Pool usage as {@code httpcomponents.httpclient.pool.*{httpclient="feign"}} (leased, available and pending
+     * against the maximum), the wait for a connection as {@code httpcomponents.httpclient.pool.lease}, and
+     * connection churn as {@code httpcomponents.httpclient.connections.opened} and {@code .closed}
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new PoolingHttpClientConnectionManagerMetricsBinder(this, NAME).bindTo(registry);
+        leaseWait = leaseTimer(registry, "leased");
+        leaseTimeouts = leaseTimer(registry, "timeout");
+        FunctionCounter.builder("httpcomponents.httpclient.connections.opened", opened, LongAdder::sum)
+                .tags(Tags.of("httpclient", NAME))
+                .description("Connections opened by the pool")
+                .register(registry);
+        FunctionCounter.builder("httpcomponents.httpclient.connections.closed", closed, LongAdder::sum)
+                .tags(Tags.of("httpclient", NAME))
+                .description("Connections closed by the pool: expired, idle, stale or not reusable")
+                .register(registry);
+    }
+
+    private static Timer leaseTimer(MeterRegistry registry, String result) {
+        return Timer.builder("httpcomponents.httpclient.pool.lease")
+                .tags("httpclient", NAME, "result", result)
+                .description("Time a call waited for a pooled connection")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
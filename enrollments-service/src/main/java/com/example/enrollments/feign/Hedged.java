@@ -0,0 +1,14 @@
+package com.example.enrollments.feign;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/** Marks an idempotent GET of a Feign client as safe to send twice, which {@link HedgingCapability} may do */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Hedged {
+}
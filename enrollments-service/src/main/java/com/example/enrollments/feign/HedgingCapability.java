@@ -0,0 +1,177 @@
+package com.example.enrollments.feign;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Hedged {@link Hedged} GETs, when {@code students.client.hedge.enabled}: if the first attempt has not answered
+ * within {@code students.client.hedge.delay}, a second one is sent, which the load balancer, seeing the first in
+ * flight, all but always routes to another instance. The first response is returned and the other is closed
+ * when it arrives; only if both attempts fail does the call. The delay belongs near the call's p95, so about one
+ * call in twenty costs an extra request. Attempts run on at most {@code students.client.hedge.threads} threads;
+ * when all are busy a call goes out unhedged on the caller's own.
+ */
+@Component
+public class HedgingCapability implements Capability, DisposableBean {
+
+    private final boolean enabled;
+    private final long delayNanos;
+    private final ThreadPoolExecutor executor;
+    private final Counter sent;
+    private final Counter won;
+
+    public HedgingCapability(@Value("${students.client.hedge.enabled:false}") boolean enabled,
+                             @Value("${students.client.hedge.delay:100ms}") Duration delay,
+                             @Value("${students.client.hedge.threads:32}") int threads,
+                             MeterRegistry registry) {
+        this.enabled = enabled;
+        this.delayNanos = delay.toNanos();
+        this.executor = new ThreadPoolExecutor(0, threads, 30, TimeUnit.SECONDS, new SynchronousQueue<>());
+        this.sent = Counter.builder("students.client.hedges").tag("outcome", "sent")
+                .description("Second attempts of hedged calls").register(registry);
+        this.won = Counter.builder("students.client.hedges").tag("outcome", "won")
+                .description("Hedged calls answered by the second attempt").register(registry);
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return enabled ? new HedgingClient(client) : client;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private final class HedgingClient implements Client {
+
+        private final Client delegate;
+
+        HedgingClient(Client delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response execute(Request request, Request.Options options) throws IOException {
+            if (!hedged(request)) {
+                return delegate.execute(request, options);
+            }
+            CompletableFuture<Response> first;
+            try {
+                first = attempt(request, options);
+            } catch (RejectedExecutionException busy) {
+                return delegate.execute(request, options);
+            }
+            try {
+                return first.get(delayNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException slow) {
+                // carries on below, outside this try, so waiting for the race is not cut short by it
+            } catch (ExecutionException e) {
+                throw rethrow(e.getCause());
+            } catch (InterruptedException e) {
+                throw interrupted(first);
+            }
+
+            CompletableFuture<Response> second;
+            try {
+                second = attempt(request, options);
+            } catch (RejectedExecutionException busy) {
+                return await(first);
+            }
+            sent.increment();
+            Response response = await(firstResponse(first, second));
+            if (second.isDone() && !second.isCompletedExceptionally() && second.join() == response) {
+                won.increment();
+            }
+            return response;
+        }
+
+        private CompletableFuture<Response> attempt(Request request, Request.Options options) {
+            CompletableFuture<Response> attempt = new CompletableFuture<>();
+            executor.execute(() -> {
+                try {
+                    attempt.complete(delegate.execute(request, options));
+                } catch (Throwable e) {
+                    attempt.completeExceptionally(e);
+                }
+            });
+            return attempt;
+        }
+    }
+
+    private static boolean hedged(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        return request.httpMethod() == Request.HttpMethod.GET && template != null
+                && template.methodMetadata() != null && template.methodMetadata().method() != null
+                && template.methodMetadata().method().isAnnotationPresent(Hedged.class);
+    }
+
+    /** The first response of the two; fails only once both have */
+    private static CompletableFuture<Response> firstResponse(CompletableFuture<Response> a, CompletableFuture<Response> b) {
+        CompletableFuture<Response> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        BiConsumer<Response, Throwable> race = (response, error) -> {
+            if (error != null) {
+                if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(error);
+                }
+            } else if (!winner.complete(response)) {
+                response.close();
+            }
+        };
+        a.whenComplete(race);
+        b.whenComplete(race);
+        return winner;
+    }
+
+    private static Response await(CompletableFuture<Response> response) throws IOException {
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            throw interrupted(response);
+        }
+    }
+
+    // nobody reads the response any more, so its connection is given back once it comes
+    private static IOException interrupted(CompletableFuture<Response> response) {
+        response.thenAccept(Response::close);
+        Thread.currentThread().interrupt();
+        return new InterruptedIOException("Interrupted while waiting for a hedged call");
+    }
+
+    private static IOException rethrow(Throwable cause) {
+        if (cause instanceof IOException e) {
+            return e;
+        }
+        if (cause instanceof RuntimeException e) {
+            throw e;
+        }
+        if (cause instanceof Error e) {
+            throw e;
+        }
+        return new IOException(cause);
+    }
+}
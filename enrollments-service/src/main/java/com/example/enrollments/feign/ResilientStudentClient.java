@@ -0,0 +1,105 @@
+package com.example.enrollments.feign;
+
+import com.example.enrollments.dto.StudentDTO;
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * {@link StudentClient} behind the {@code studentsCB} circuit breaker and {@code studentsRetry} retry.
+ * Lives in its own bean so the resilience4j proxies always apply (self-invocation would bypass them).
+ * Feign errors are translated: 404 becomes {@link NoSuchElementException} (ignored by breaker and retry),
+ * everything else {@link IllegalStateException}.
+ */
+@Component
+public class ResilientStudentClient {
+
+    private static final Logger log = LoggerFactory.getLogger(ResilientStudentClient.class);
+    private final StudentClient studentClient;
+
+    public ResilientStudentClient(StudentClient studentClient) {
+        this.studentClient = studentClient;
+    }
+
+    @CircuitBreaker(name = "studentsCB", fallbackMethod = "getStudentFallback")
+    @Retry(name = "studentsRetry")
+    public StudentDTO getStudent(Long studentId) {
+        return fetch(studentId);
+    }
+
+    /**
+     * Non-blocking variant of {@link #getStudent}: the Feign call runs on the {@code studentsBulkhead}
+     * thread pool, so the caller's thread is released at once. When the pool and its queue are full the
+     * future fails fast with {@link BulkheadFullException} instead of piling up more waiting callers.
+     */
+    @Bulkhead(name = "studentsBulkhead", type = Bulkhead.Type.THREADPOOL)
+    @CircuitBreaker(name = "studentsCB", fallbackMethod = "getStudentAsyncFallback")
+    @Retry(name = "studentsRetry")
+    public CompletableFuture<StudentDTO> getStudentAsync(Long studentId) {
+        return CompletableFuture.completedFuture(fetch(studentId));
+    }
+
+    private StudentDTO fetch(Long studentId) {
+        try {
+            return studentClient.getStudent(studentId);
+        } catch (FeignException.NotFound nf) {
+            throw new NoSuchElementException("Student with ID " + studentId + " not found");
+        } catch (RetryableException rex) {
+            log.error("StudentService retryable exception for id={}: {}", studentId, rex.getMessage());
+            throw new IllegalStateException("StudentService unreachable");
+        } catch (FeignException.ServiceUnavailable su) {
+            log.error("StudentService returned 503 for id={}: {}", studentId, su.getMessage());
+            throw new IllegalStateException("StudentService unavailable (503)");
+        } catch (FeignException fe) {
+            log.error("Unexpected FeignException while fetching student {}: {}", studentId, fe.getMessage());
+            throw new IllegalStateException("Failed to contact StudentService");
+        }
+    }
+
+    @CircuitBreaker(name = "studentsCB", fallbackMethod = "getStudentsFallback")
+    @Retry(name = "studentsRetry")
+    public List<StudentDTO> getStudents(Set<Long> studentIds) {
+        try {
+            return studentClient.getStudents(studentIds);
+        } catch (FeignException fe) {
+            log.error("FeignException while fetching {} students in batch: {}", studentIds.size(), fe.getMessage());
+            throw new IllegalStateException("Failed to contact StudentService");
+        }
+    }
+
+    /** Circuit breaker fallback when StudentService is down; a plain 404 is passed through unchanged */
+    private StudentDTO getStudentFallback(Long studentId, Throwable ex) {
+        if (ex instanceof NoSuchElementException nse) {
+            throw nse;
+        }
+        log.error("getStudentFallback: Student service unavailable for id={} cause={}", studentId, ex.toString());
+        throw new IllegalStateException("Students service unavailable (Circuit Breaker)");
+    }
+
+    /** Async counterpart of {@link #getStudentFallback}; a full bulkhead is reported as such, not as an outage */
+    private CompletableFuture<StudentDTO> getStudentAsyncFallback(Long studentId, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof NoSuchElementException || cause instanceof BulkheadFullException) {
+            return CompletableFuture.failedFuture(cause);
+        }
+        log.error("getStudentAsyncFallback: Student service unavailable for id={} cause={}", studentId, cause.toString());
+        return CompletableFuture.failedFuture(new IllegalStateException("Students service unavailable (Circuit Breaker)"));
+    }
+
+    private List<StudentDTO> getStudentsFallback(Set<Long> studentIds, Throwable ex) {
+        log.error("getStudentsFallback: Student service unavailable for {} ids cause={}", studentIds.size(), ex.toString());
+        throw new IllegalStateException("Students service unavailable (Circuit Breaker)");
+    }
+}
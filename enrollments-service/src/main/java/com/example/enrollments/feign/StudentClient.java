@@ -1,10 +1,35 @@
 package com.example.enrollments.feign;
+import com.example.enrollments.dto.StudentChangeDTO;
 import com.example.enrollments.dto.StudentDTO;
+import feign.Request;
+import org.springframework.http.ResponseEntity;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
-@FeignClient(name = "students-service", path = "/students")
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import java.util.Collection;
+import java.util.List;
+/** Calls to students-service, in the wire format chosen by {@link StudentClientConfiguration} */
+@FeignClient(name = "students-service", path = "/students", configuration = StudentClientConfiguration.class)
 public interface StudentClient {
+    @Hedged
     @GetMapping("/{id}")
     StudentDTO getStudent(@PathVariable(name = "id") Long id);
-}
\ No newline at end of file
+
+    /** One round-trip for many ids; ids unknown to students-service are absent from the result */
+    @PostMapping("/batch")
+    List<StudentDTO> getStudents(@RequestBody Collection<Long> ids);
+
+    /**
+     * Change feed page after position {@code after}, waiting up to {@code wait} (e.g. {@code 20s}) for a change;
+     * the position to continue from is in the {@code X-Next-Cursor} header. {@code options} must allow a read
+     * timeout longer than {@code wait}, which the client's own does not.
+     */
+    @GetMapping("/changes")
+    ResponseEntity<List<StudentChangeDTO>> changes(@RequestParam(name = "after") long after,
+                                                   @RequestParam(name = "size") int size,
+                                                   @RequestParam(name = "wait") String wait,
+                                                   Request.Options options);
+}
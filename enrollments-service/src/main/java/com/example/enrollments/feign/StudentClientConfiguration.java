@@ -0,0 +1,63 @@
+package com.example.enrollments.feign;
+
+import com.example.common.web.WireFormats;
+import feign.RequestInterceptor;
+import feign.codec.Encoder;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Wire format of {@link StudentClient}, {@code students.client.format}: Smile by default, or CBOR or JSON.
+ * Responses are asked for in it, with JSON as the less preferred alternative so a students-service instance
+ * without the binary converters still answers, and read by whichever converter matches their
+ * {@code Content-Type}. Request bodies are always JSON: such an instance would refuse any other with 415, and
+ * the only one sent, the ids of a batch lookup, is small. Not a {@code @Configuration}: it must only apply to
+ * this client, through {@code @FeignClient(configuration = ...)}.
+ */
+public class StudentClientConfiguration {
+
+    public enum Format {
+        SMILE(WireFormats.SMILE), CBOR(MediaType.APPLICATION_CBOR), JSON(MediaType.APPLICATION_JSON);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        // the client's own context has no Boot conversion service, so "smile" is not bound to SMILE for us
+        static Format of(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    @Bean
+    RequestInterceptor studentClientAccept(@Value("${students.client.format:smile}") String name) {
+        Format format = Format.of(name);
+        String accept = format == Format.JSON
+                ? MediaType.APPLICATION_JSON_VALUE
+                : format.mediaType + ", " + MediaType.APPLICATION_JSON_VALUE + ";q=0.5";
+        return template -> {
+            template.removeHeader(HttpHeaders.ACCEPT);
+            template.header(HttpHeaders.ACCEPT, accept);
+        };
+    }
+
+    // SpringEncoder picks the converter by the request's Content-Type, so it is set before encoding
+    @Bean
+    Encoder studentClientEncoder(ObjectFactory<HttpMessageConverters> converters) {
+        SpringEncoder encoder = new SpringEncoder(converters);
+        return (body, bodyType, template) -> {
+            template.removeHeader(HttpHeaders.CONTENT_TYPE);
+            template.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            encoder.encode(body, bodyType, template);
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.enrollments.loadbalancer;
+
+import com.example.common.loadbalancer.InstanceScores;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds {@link InstanceScores} from load-balanced Feign calls. Feign reports a call complete once the response
+ * headers are in, so the time taken is the instance's, not that of reading a large body.
+ */
+@Component
+public class InstanceScoreLifecycle implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private final InstanceScores scores;
+
+    public InstanceScoreLifecycle(InstanceScores scores) {
+        this.scores = scores;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse.hasServer() && timed(request)) {
+            request.getContext().setRequestStartTime(scores.start(lbResponse.getServer()));
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        Request<RequestDataContext> request = completionContext.getLoadBalancerRequest();
+        if (lbResponse == null || !lbResponse.hasServer() || !timed(request)) {
+            return;
+        }
+        ResponseData response = completionContext.getClientResponse();
+        boolean failed = completionContext.status() != CompletionContext.Status.SUCCESS
+                || response == null || response.getHttpStatus() == null || response.getHttpStatus().is5xxServerError();
+        scores.finish(lbResponse.getServer(), request.getContext().getRequestStartTime(), failed);
+    }
+
+    private static boolean timed(Request<RequestDataContext> request) {
+        RequestData data = request.getContext() == null ? null : request.getContext().getClientRequest();
+        return data != null && !InstanceScores.untimed(data.getUrl(), data.getHeaders());
+    }
+}
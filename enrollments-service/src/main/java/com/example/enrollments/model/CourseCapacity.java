@@ -0,0 +1,28 @@
+package com.example.enrollments.model;
+import jakarta.persistence.*;
+import lombok.*;
+/**
+ * Seat limit of one course in one semester. {@code allocated} counts seats handed out to service instances,
+ * either taken by an enrollment or leased in a block and not used yet; it never grows past {@code capacity}.
+ * Courses without a row have no limit.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_course_capacity", columnNames = {"courseCode", "semester"}))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class CourseCapacity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Every lease and return is an optimistic update, so instances never overwrite each other's counts
+    @Version
+    private Long version;
+
+    private String courseCode;
+
+    private String semester;
+
+    private int capacity;
+
+    private int allocated;
+}
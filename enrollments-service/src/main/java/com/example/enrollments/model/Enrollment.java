@@ -1,13 +1,32 @@
 package com.example.enrollments.model;
+import com.example.enrollments.cache.EntityCache;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCache.ENROLLMENT_REGION)
+@Table(uniqueConstraints = {
+        // One enrollment per student, course and semester; its index also serves lookups by studentId
+        @UniqueConstraint(name = "uk_enrollment_student_course_semester", columnNames = {"studentId", "courseCode", "semester"})
+}, indexes = {
+        @Index(name = "idx_enrollment_course_semester", columnList = "courseCode, semester"),
+        @Index(name = "idx_enrollment_semester", columnList = "semester")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Enrollment {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts (see hibernate.jdbc.batch_size)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enrollment_seq")
+    @SequenceGenerator(name = "enrollment_seq", sequenceName = "enrollment_seq", allocationSize = 50)
     private Long id;
 
+    // Bumped on every update; also the source of the strong ETag served by GET /enrollments/{id}
+    @Version
+    private Long version;
+
     @NotNull
     private Long studentId;
 
@@ -0,0 +1,15 @@
+package com.example.enrollments.model;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+/** Single row: the change feed position the {@link StudentReplica} table reflects, updated with it in one transaction */
+@Entity
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class StudentFeedCursor {
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    private long position;
+}
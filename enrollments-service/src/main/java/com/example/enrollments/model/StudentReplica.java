@@ -0,0 +1,31 @@
+package com.example.enrollments.model;
+import com.example.enrollments.dto.StudentChangeDTO;
+import com.example.enrollments.dto.StudentDTO;
+import jakarta.persistence.*;
+import lombok.*;
+/**
+ * Local copy of a student, kept up to date from students-service's change feed by
+ * {@code StudentFeedFollower}; lets enrollments resolve students without a remote call.
+ */
+@Entity
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class StudentReplica {
+    // students-service's id, not generated here
+    @Id
+    private Long id;
+
+    // students-service's @Version of the copied state
+    private Long version;
+
+    private String fullName;
+    private String email;
+    private String indexNumber;
+
+    public static StudentReplica of(StudentChangeDTO change) {
+        return new StudentReplica(change.studentId(), change.version(), change.fullName(), change.email(), change.indexNumber());
+    }
+
+    public StudentDTO toDto() {
+        return new StudentDTO(id, fullName, email, indexNumber);
+    }
+}
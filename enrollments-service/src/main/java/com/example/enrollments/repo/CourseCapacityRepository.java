@@ -0,0 +1,24 @@
+package com.example.enrollments.repo;
+import com.example.enrollments.model.CourseCapacity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Optional;
+public interface CourseCapacityRepository extends JpaRepository<CourseCapacity, Long>
+{
+    Optional<CourseCapacity> findByCourseCodeAndSemester(String courseCode, String semester);
+
+    boolean existsByCourseCodeAndSemester(String courseCode, String semester);
+
+    /**
+     * Adds {@code seats} (negative to return them) to the allocation if the row is still at {@code version};
+     * 0 means another instance changed it first and the caller should re-read and retry.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update CourseCapacity c set c.allocated = c.allocated + :seats, c.version = c.version + 1 "
+            + "where c.id = :id and c.version = :version")
+    int allocate(@Param("id") Long id, @Param("version") Long version, @Param("seats") int seats);
+}
@@ -1,5 +1,52 @@
 package com.example.enrollments.repo;
 import com.example.enrollments.model.Enrollment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
-public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>
-{ }
\ No newline at end of file
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>, JpaSpecificationExecutor<Enrollment>
+{
+    List<Enrollment> findByStudentId(Long studentId);
+
+    long countByCourseCodeAndSemester(String courseCode, String semester);
+
+    /** Rows of [courseCode, count] */
+    @Query("select e.courseCode, count(e) from Enrollment e group by e.courseCode")
+    List<Object[]> countPerCourse();
+
+    /** Rows of [semester, count] */
+    @Query("select e.semester, count(e) from Enrollment e group by e.semester")
+    List<Object[]> countPerSemester();
+
+    /** Rows of [studentId, count] */
+    @Query("select e.studentId, count(e) from Enrollment e group by e.studentId")
+    List<Object[]> countPerStudent();
+
+    /** Only the {@code @Version} of an enrollment, for answering conditional GETs without loading the row */
+    @Query("select e.version from Enrollment e where e.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Cursor over the enrollments matching every non-null filter, in id order; must be consumed inside a
+     * transaction and closed. Bypasses the entity cache, which a full export would otherwise flush
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("""
+            select e from Enrollment e
+            where (:studentId is null or e.studentId = :studentId)
+              and (:courseCode is null or e.courseCode = :courseCode)
+              and (:semester is null or e.semester = :semester)
+            order by e.id""")
+    Stream<Enrollment> streamMatching(@Param("studentId") Long studentId, @Param("courseCode") String courseCode,
+                                      @Param("semester") String semester);
+}
@@ -0,0 +1,36 @@
+package com.example.enrollments.repo;
+
+import com.example.enrollments.dto.EnrollmentFilter;
+import com.example.enrollments.model.Enrollment;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Criteria for the filtered enrollment listing; every filter maps onto an index declared on {@link Enrollment}. */
+public final class EnrollmentSpecifications {
+
+    private EnrollmentSpecifications() {
+    }
+
+    /** Enrollments matching all non-null filters with id strictly greater than {@code afterId} (if given) */
+    public static Specification<Enrollment> matching(EnrollmentFilter filter, Long afterId) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.studentId() != null) {
+                predicates.add(cb.equal(root.get("studentId"), filter.studentId()));
+            }
+            if (filter.courseCode() != null) {
+                predicates.add(cb.equal(root.get("courseCode"), filter.courseCode()));
+            }
+            if (filter.semester() != null) {
+                predicates.add(cb.equal(root.get("semester"), filter.semester()));
+            }
+            if (afterId != null) {
+                predicates.add(cb.greaterThan(root.get("id"), afterId));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
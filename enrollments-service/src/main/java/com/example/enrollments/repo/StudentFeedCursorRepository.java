@@ -0,0 +1,5 @@
+package com.example.enrollments.repo;
+import com.example.enrollments.model.StudentFeedCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+public interface StudentFeedCursorRepository extends JpaRepository<StudentFeedCursor, Integer> {
+}
@@ -0,0 +1,5 @@
+package com.example.enrollments.repo;
+import com.example.enrollments.model.StudentReplica;
+import org.springframework.data.jpa.repository.JpaRepository;
+public interface StudentReplicaRepository extends JpaRepository<StudentReplica, Long> {
+}
@@ -1,22 +1,43 @@
 package com.example.enrollments.service;
 
+import com.example.enrollments.dto.BulkEnrollmentDTO;
+import com.example.enrollments.dto.BulkEnrollmentResult;
+import com.example.enrollments.dto.CourseSelectionDTO;
 import com.example.enrollments.dto.EnrollmentDTO;
+import com.example.enrollments.dto.EnrollmentFilter;
+import com.example.enrollments.dto.EnrollmentView;
 import com.example.enrollments.dto.StudentDTO;
-import com.example.enrollments.feign.StudentClient;
 import com.example.enrollments.model.Enrollment;
 import com.example.enrollments.repo.EnrollmentRepository;
-import feign.FeignException;
-import feign.RetryableException;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
+import com.example.enrollments.repo.EnrollmentSpecifications;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class EnrollmentService {
@@ -24,11 +45,23 @@ public class EnrollmentService {
     private static final Logger log = LoggerFactory.getLogger(EnrollmentService.class);
 
     private final EnrollmentRepository repo;
-    private final StudentClient studentClient;
+    private final StudentLookup studentLookup;
+    private final Validator validator;
+    private final SeatLedger seats;
+    private final EnrollmentStats stats;
+    private final EntityManager entityManager;
+    private final Executor inserts;
 
-    public EnrollmentService(EnrollmentRepository repo, StudentClient studentClient) {
+    public EnrollmentService(EnrollmentRepository repo, StudentLookup studentLookup, Validator validator,
+                             SeatLedger seats, EnrollmentStats stats, EntityManager entityManager,
+                             @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor inserts) {
         this.repo = repo;
-        this.studentClient = studentClient;
+        this.studentLookup = studentLookup;
+        this.validator = validator;
+        this.seats = seats;
+        this.stats = stats;
+        this.entityManager = entityManager;
+        this.inserts = inserts;
     }
 
     /** Return all enrollments */
@@ -36,61 +69,226 @@ public class EnrollmentService {
             return repo.findAll();
     }
 
+    /** One keyset page of enrollments matching the filter, ordered by id */
+    public List<Enrollment> page(EnrollmentFilter filter, Long afterId, int size) {
+        return repo.findBy(EnrollmentSpecifications.matching(filter, afterId),
+                q -> q.sortBy(Sort.by("id")).limit(size).all());
+    }
+
+    /** Pushes every enrollment matching the filter to {@code sink} in id order, detaching each row as it goes */
+    @Transactional(readOnly = true)
+    public void streamMatching(EnrollmentFilter filter, Consumer<Enrollment> sink) {
+        try (Stream<Enrollment> enrollments = repo.streamMatching(filter.studentId(), filter.courseCode(), filter.semester())) {
+            enrollments.forEach(e -> {
+                sink.accept(e);
+                entityManager.detach(e);
+            });
+        }
+    }
+
     public Enrollment byId(Long id) {
         return repo.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Enrollment with ID " + id + " not found"));
     }
 
-    @CircuitBreaker(name = "studentsCB", fallbackMethod = "createFallback")
-    @Retry(name = "studentsRetry")
+    /** Current version of the enrollment, empty if it does not exist */
+    public Optional<Long> versionOf(Long id) {
+        return repo.findVersionById(id);
+    }
+
     public Enrollment create(EnrollmentDTO dto) {
         log.info("Creating enrollment for studentId={}, courseCode={}, semester={}",
                 dto.studentId(), dto.courseCode(), dto.semester());
 
+        requireStudent(dto.studentId());
+        return insert(newEnrollment(dto));
+    }
+
+    /**
+     * {@link #create} without holding the caller's thread while students-service answers; the insert runs on
+     * the application task executor, so the {@code studentsBulkhead} pool only covers the remote call. Fails
+     * with the same 404/503 statuses.
+     */
+    public CompletableFuture<Enrollment> createAsync(EnrollmentDTO dto) {
+        log.info("Creating enrollment (async) for studentId={}, courseCode={}, semester={}",
+                dto.studentId(), dto.courseCode(), dto.semester());
+
+        return studentLookup.getAsync(dto.studentId())
+                .exceptionally(error -> {
+                    throw studentLookupFailure(dto.studentId(), error);
+                })
+                .thenApplyAsync(student -> {
+                    requirePresent(dto.studentId(), student);
+                    return insert(newEnrollment(dto));
+                }, inserts);
+    }
+
+    /** Saves a new enrollment holding a seat of its course: 409 if the course is full or the student already enrolled */
+    private Enrollment insert(Enrollment enrollment) {
+        reserveSeat(enrollment.getCourseCode(), enrollment.getSemester());
+        Enrollment saved;
         try {
-            StudentDTO s = studentClient.getStudent(dto.studentId());
+            saved = repo.save(enrollment);
+        } catch (RuntimeException e) {
+            seats.release(enrollment.getCourseCode(), enrollment.getSemester());
+            throw e instanceof DataIntegrityViolationException ? alreadyEnrolled(enrollment) : e;
+        }
+        stats.added(saved);
+        return saved;
+    }
 
-            if (s == null) {
-                log.warn("Students service returned null for studentId={}", dto.studentId());
-                throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Students service invalid response");
-            }
+    private void reserveSeat(String courseCode, String semester) {
+        if (!tryReserveSeat(courseCode, semester)) {
+            log.warn("No seats left in {} for {}", courseCode, semester);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, courseFull(courseCode, semester));
+        }
+    }
+
+    /** Takes a seat of the course, false if it is full; 503 if the ledger could not settle the seat count */
+    private boolean tryReserveSeat(String courseCode, String semester) {
+        try {
+            return seats.tryReserve(courseCode, semester);
+        } catch (IllegalStateException e) {
+            log.warn("Cannot reserve a seat in {} for {}: {}", courseCode, semester, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
 
-            Enrollment enrollment = Enrollment.builder()
-                    .studentId(dto.studentId())
-                    .courseCode(dto.courseCode())
-                    .semester(dto.semester())
-                    .build();
+    private static String courseFull(String courseCode, String semester) {
+        return "No seats left in " + courseCode + " for " + semester;
+    }
+
+    private static ResponseStatusException alreadyEnrolled(Enrollment enrollment) {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Student " + enrollment.getStudentId()
+                + " is already enrolled in " + enrollment.getCourseCode() + " for " + enrollment.getSemester());
+    }
 
-            return repo.save(enrollment);
+    private static Enrollment newEnrollment(EnrollmentDTO dto) {
+        return Enrollment.builder()
+                .studentId(dto.studentId())
+                .courseCode(dto.courseCode())
+                .semester(dto.semester())
+                .build();
+    }
 
-        } catch (FeignException.NotFound nf) {
-            log.warn("Student with ID {} not found (404)", dto.studentId());
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Student with ID " + dto.studentId() + " not found");
+    /**
+     * Enrolls one student in several courses: the student is checked once, every course is validated,
+     * checked against the student's existing enrollments and given a seat, and all accepted rows are
+     * inserted in one transaction as a single JDBC batch. If a concurrent request enrolled the student
+     * in one of the courses first, nothing is inserted and the call fails with 409; if a seat count cannot
+     * be settled, the seats taken so far are given back and the call fails with 503.
+     */
+    public BulkEnrollmentResult createBulk(BulkEnrollmentDTO dto) {
+        log.info("Creating {} enrollments for studentId={}", dto.courses().size(), dto.studentId());
+        requireStudent(dto.studentId());
 
-        } catch (FeignException ex) {
-            log.error("Feign exception fetching student {}: {}", dto.studentId(), ex.getMessage());
-            throw ex;
+        Set<String> taken = new HashSet<>();
+        for (Enrollment existing : repo.findByStudentId(dto.studentId())) {
+            taken.add(courseKey(existing.getCourseCode(), existing.getSemester()));
         }
+
+        List<CourseSelectionDTO> courses = dto.courses();
+        BulkEnrollmentResult.Item[] items = new BulkEnrollmentResult.Item[courses.size()];
+        List<Integer> acceptedPositions = new ArrayList<>();
+        List<Enrollment> accepted = new ArrayList<>();
+        try {
+            for (int i = 0; i < courses.size(); i++) {
+                CourseSelectionDTO course = courses.get(i);
+                Set<ConstraintViolation<CourseSelectionDTO>> violations = validator.validate(course);
+                if (!violations.isEmpty()) {
+                    items[i] = BulkEnrollmentResult.Item.rejected(course, BulkEnrollmentResult.Status.INVALID,
+                            violations.iterator().next().getMessage());
+                } else if (!taken.add(courseKey(course.courseCode(), course.semester()))) {
+                    items[i] = BulkEnrollmentResult.Item.rejected(course, BulkEnrollmentResult.Status.DUPLICATE,
+                            "Student is already enrolled in " + course.courseCode() + " for " + course.semester());
+                } else if (!tryReserveSeat(course.courseCode(), course.semester())) {
+                    items[i] = BulkEnrollmentResult.Item.rejected(course, BulkEnrollmentResult.Status.FULL,
+                            courseFull(course.courseCode(), course.semester()));
+                } else {
+                    acceptedPositions.add(i);
+                    accepted.add(Enrollment.builder()
+                            .studentId(dto.studentId())
+                            .courseCode(course.courseCode())
+                            .semester(course.semester())
+                            .build());
+                }
+            }
+        } catch (ResponseStatusException e) {
+            accepted.forEach(enrollment -> seats.release(enrollment.getCourseCode(), enrollment.getSemester()));
+            throw e;
+        }
+
+        List<Enrollment> saved;
+        try {
+            saved = accepted.isEmpty() ? List.of() : repo.saveAll(accepted);
+        } catch (RuntimeException e) {
+            accepted.forEach(enrollment -> seats.release(enrollment.getCourseCode(), enrollment.getSemester()));
+            if (e instanceof DataIntegrityViolationException) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Student " + dto.studentId() + " was enrolled concurrently, retry the request");
+            }
+            throw e;
+        }
+        saved.forEach(stats::added);
+        for (int i = 0; i < saved.size(); i++) {
+            int position = acceptedPositions.get(i);
+            items[position] = BulkEnrollmentResult.Item.created(courses.get(position), saved.get(i).getId());
+        }
+        return new BulkEnrollmentResult(dto.studentId(), List.of(items));
+    }
+
+    /** Resolves the student or fails with 404 (unknown) / 503 (students-service unavailable or busy) */
+    private StudentDTO requireStudent(Long studentId) {
+        StudentDTO s;
+        try {
+            s = studentLookup.get(studentId);
+        } catch (NoSuchElementException | IllegalStateException e) {
+            throw studentLookupFailure(studentId, e);
+        }
+        return requirePresent(studentId, s);
+    }
+
+    private static RuntimeException studentLookupFailure(Long studentId, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof NoSuchElementException) {
+            log.warn("Student with ID {} not found (404)", studentId);
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, "Student with ID " + studentId + " not found");
+        }
+        if (cause instanceof BulkheadFullException) {
+            log.warn("Cannot create enrollment for studentId={}: students client pool is saturated", studentId);
+            return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Students service busy – cannot create enrollment now");
+        }
+        if (cause instanceof IllegalStateException) {
+            log.error("Cannot create enrollment for studentId={}: {}", studentId, cause.getMessage());
+            return new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Students service unavailable (Circuit Breaker) – cannot create enrollment now"
+            );
+        }
+        return cause instanceof RuntimeException re ? re : new CompletionException(cause);
     }
 
-    private Enrollment createFallback(EnrollmentDTO dto, Throwable ex) {
-        log.error("Create enrollment fallback triggered for studentId={} due to: {}",
-                dto.studentId(), ex.toString());
-        throw new ResponseStatusException(
-                HttpStatus.SERVICE_UNAVAILABLE,
-                "Students service unavailable (Circuit Breaker) – cannot create enrollment now"
-        );
+    private static StudentDTO requirePresent(Long studentId, StudentDTO s) {
+        if (s == null) {
+            log.warn("Students service returned null for studentId={}", studentId);
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Students service invalid response");
+        }
+        return s;
     }
 
+    private static String courseKey(String courseCode, String semester) {
+        return courseCode + '|' + semester;
+    }
 
-    /** Update an existing enrollment */
+    /** Update an existing enrollment; moving it to another course or semester needs a free seat there */
     public Enrollment update(Long id, EnrollmentDTO dto) {
         Enrollment existing = byId(id);
 
         // Validate student existence only if changed
         if (!existing.getStudentId().equals(dto.studentId())) {
             try {
-                StudentDTO student = fetchStudentWithResilience(dto.studentId());
+                StudentDTO student = studentLookup.get(dto.studentId());
                 if (student == null) {
                     throw new NoSuchElementException("Student with ID " + dto.studentId() + " not found");
                 }
@@ -99,58 +297,86 @@ public class EnrollmentService {
             }
         }
 
+        Enrollment before = Enrollment.builder()
+                .studentId(existing.getStudentId())
+                .courseCode(existing.getCourseCode())
+                .semester(existing.getSemester())
+                .build();
+        boolean moved = !before.getCourseCode().equals(dto.courseCode()) || !before.getSemester().equals(dto.semester());
+        if (moved) {
+            reserveSeat(dto.courseCode(), dto.semester());
+        }
+
         existing.setStudentId(dto.studentId());
         existing.setCourseCode(dto.courseCode());
         existing.setSemester(dto.semester());
 
-        return repo.save(existing);
+        Enrollment saved;
+        try {
+            saved = repo.save(existing);
+        } catch (RuntimeException e) {
+            if (moved) {
+                seats.release(dto.courseCode(), dto.semester());
+            }
+            throw e instanceof DataIntegrityViolationException ? alreadyEnrolled(existing) : e;
+        }
+        if (moved) {
+            seats.release(before.getCourseCode(), before.getSemester());
+        }
+        stats.removed(before);
+        stats.added(saved);
+        return saved;
     }
 
-    /** Delete enrollment */
+    /** Delete enrollment and free its seat */
     public void delete(Long id) {
         Enrollment enrollment = byId(id);
         repo.delete(enrollment);
+        seats.release(enrollment.getCourseCode(), enrollment.getSemester());
+        stats.removed(enrollment);
     }
 
     /** Aggregated view: enrollment + student details */
     public EnrollmentDetails details(Long id) {
         Enrollment enrollment = byId(id);
         try {
-            StudentDTO student = fetchStudentWithResilience(enrollment.getStudentId());
-            return new EnrollmentDetails(enrollment, student);
+            StudentDTO student = studentLookup.get(enrollment.getStudentId());
+            return new EnrollmentDetails(EnrollmentView.of(enrollment), student);
         } catch (NoSuchElementException nse) {
             throw nse; // student missing → 404
         }
     }
 
-    /** Helper: fetch student with circuit breaker + retry */
-    @CircuitBreaker(name = "studentsCB", fallbackMethod = "fetchStudentFallback")
-    @Retry(name = "studentsRetry")
-    public StudentDTO fetchStudentWithResilience(Long studentId) {
-        try {
-            return studentClient.getStudent(studentId);
-        } catch (FeignException.NotFound nf) {
-            // StudentService returned 404 → handle in create/update/details
-            throw new NoSuchElementException("Student with ID " + studentId + " not found");
-        } catch (RetryableException rex) {
-            // Network/service down → circuit breaker fallback
-            log.error("StudentService retryable exception for id={}: {}", studentId, rex.getMessage());
-            throw new IllegalStateException("StudentService unreachable");
-        } catch (FeignException.ServiceUnavailable su) {
-            log.error("StudentService returned 503 for id={}: {}", studentId, su.getMessage());
-            throw new IllegalStateException("StudentService unavailable (503)");
-        } catch (FeignException fe) {
-            log.error("Unexpected FeignException while fetching student {}: {}", studentId, fe.getMessage());
-            throw new IllegalStateException("Failed to contact StudentService");
+    /** {@link #details} without holding the caller's thread while students-service answers */
+    public CompletableFuture<EnrollmentDetails> detailsAsync(Long id) {
+        Enrollment enrollment = byId(id);
+        return studentLookup.getAsync(enrollment.getStudentId())
+                .thenApply(student -> new EnrollmentDetails(EnrollmentView.of(enrollment), student));
+    }
+
+    /**
+     * Aggregated view for a page of enrollments: all distinct students are resolved with a single
+     * batch call instead of one call per row. Enrollments whose student no longer exists get a null student.
+     */
+    public List<EnrollmentDetails> detailsPage(EnrollmentFilter filter, Long afterId, int size) {
+        List<Enrollment> enrollments = page(filter, afterId, size);
+        if (enrollments.isEmpty()) {
+            return List.of();
         }
+        Set<Long> studentIds = enrollments.stream()
+                .map(Enrollment::getStudentId)
+                .collect(Collectors.toSet());
+        Map<Long, StudentDTO> students = studentLookup.getAll(studentIds);
+        return enrollments.stream()
+                .map(e -> new EnrollmentDetails(EnrollmentView.of(e), students.get(e.getStudentId())))
+                .toList();
     }
 
-    /** Circuit breaker fallback when StudentService is down */
-    private StudentDTO fetchStudentFallback(Long studentId, Throwable ex) {
-        log.error("fetchStudentFallback: Student service unavailable for id={} cause={}", studentId, ex.toString());
-        throw new IllegalStateException("Students service unavailable (Circuit Breaker)");
+    /** Enrollment counts per course, semester and student, from memory */
+    public EnrollmentStats.Snapshot stats() {
+        return stats.snapshot();
     }
 
     /** Combined response for details() */
-    public record EnrollmentDetails(Enrollment enrollment, StudentDTO student) {}
+    public record EnrollmentDetails(EnrollmentView enrollment, StudentDTO student) {}
 }
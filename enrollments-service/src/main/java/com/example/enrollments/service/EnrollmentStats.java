@@ -0,0 +1,138 @@
+package com.example.enrollments.service;
+
+import com.example.enrollments.model.Enrollment;
+import com.example.enrollments.repo.EnrollmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enrollment counts per course, semester and student, kept in memory so {@code GET /enrollments/stats} costs
+ * the size of the answer rather than a table scan. The counts are loaded with three grouped queries before
+ * the service takes traffic and then moved by {@link EnrollmentService} on every insert, update and delete.
+ * <p>
+ * Each instance sees only its own writes, so with several instances the counts are reloaded every
+ * {@code enrollments.stats.rebuild-interval} ({@code 0} turns that off). A write is moved only after it commits,
+ * so one that races a reload can be counted twice (the reload read the committed row, the move lands on the
+ * fresh counts) or not at all (the move lands on the counts being replaced); counts can be off in either
+ * direction until the next reload.
+ */
+@Component
+public class EnrollmentStats implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentStats.class);
+
+    private final EnrollmentRepository repo;
+    private final Duration rebuildInterval;
+    private volatile Counts counts = new Counts();
+    private ScheduledExecutorService rebuilder;
+
+    public EnrollmentStats(EnrollmentRepository repo,
+                           @Value("${enrollments.stats.rebuild-interval:5m}") Duration rebuildInterval) {
+        this.repo = repo;
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+        if (rebuildInterval.isZero() || rebuildInterval.isNegative()) {
+            return;
+        }
+        rebuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "enrollment-stats-rebuild");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = rebuildInterval.toMillis();
+        rebuilder.scheduleWithFixedDelay(this::rebuildQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /** Replaces the counts with fresh ones from the table */
+    public void rebuild() {
+        Counts fresh = new Counts();
+        load(repo.countPerCourse(), fresh.byCourse);
+        load(repo.countPerSemester(), fresh.bySemester);
+        load(repo.countPerStudent(), fresh.byStudent);
+        counts = fresh;
+        log.debug("Enrollment stats rebuilt: {} courses, {} semesters, {} students",
+                fresh.byCourse.size(), fresh.bySemester.size(), fresh.byStudent.size());
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Keeping previous enrollment stats; rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> void load(List<Object[]> rows, Map<K, Long> into) {
+        for (Object[] row : rows) {
+            into.put((K) row[0], ((Number) row[1]).longValue());
+        }
+    }
+
+    void added(Enrollment enrollment) {
+        counts.move(enrollment, 1);
+    }
+
+    void removed(Enrollment enrollment) {
+        counts.move(enrollment, -1);
+    }
+
+    /** Current counts, sorted by key */
+    public Snapshot snapshot() {
+        Counts current = counts;
+        Map<String, Long> bySemester = new TreeMap<>(current.bySemester);
+        return new Snapshot(
+                bySemester.values().stream().mapToLong(Long::longValue).sum(),
+                new TreeMap<>(current.byCourse),
+                bySemester,
+                new TreeMap<>(current.byStudent));
+    }
+
+    @Override
+    public void destroy() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    /** Total enrollments and counts per course, semester and student; keys without enrollments are left out */
+    public record Snapshot(long total, Map<String, Long> byCourse, Map<String, Long> bySemester, Map<Long, Long> byStudent) {}
+
+    private static final class Counts {
+        final ConcurrentHashMap<String, Long> byCourse = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, Long> bySemester = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Long, Long> byStudent = new ConcurrentHashMap<>();
+
+        void move(Enrollment enrollment, long delta) {
+            add(byCourse, enrollment.getCourseCode(), delta);
+            add(bySemester, enrollment.getSemester(), delta);
+            add(byStudent, enrollment.getStudentId(), delta);
+        }
+
+        // compute is atomic per key; a count that drops to zero removes its key. A rebuild that already saw a
+        // delete leaves nothing to take it from, so a count never goes below zero
+        private static <K> void add(ConcurrentHashMap<K, Long> counts, K key, long delta) {
+            counts.compute(key, (k, current) -> {
+                long count = (current == null ? 0 : current) + delta;
+                return count > 0 ? count : null;
+            });
+        }
+    }
+}
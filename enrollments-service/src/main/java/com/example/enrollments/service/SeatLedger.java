@@ -0,0 +1,260 @@
+package com.example.enrollments.service;
+
+import com.example.enrollments.model.CourseCapacity;
+import com.example.enrollments.repo.CourseCapacityRepository;
+import com.example.enrollments.repo.EnrollmentRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Course seat limits enforced without a database round trip per enrollment. Each instance leases seats from a
+ * course's {@link CourseCapacity} row in blocks of up to {@code enrollments.seats.lease-size} with an optimistic
+ * update, and hands them out from a lock-free per-course counter; only the thread that runs out takes the next
+ * block. Lease sizes halve as a course fills up, so few seats sit idle on one instance while another reports
+ * the course as full. Freed seats go back to the local counter; an instance holding more than two blocks returns
+ * the surplus to the row, and all of its seats at shutdown.
+ * <p>
+ * Whether a course has a limit at all is looked up once and, for unlimited courses, rechecked every
+ * {@code enrollments.seats.recheck}. Seats leased by an instance that dies without shutting down stay allocated.
+ */
+@Component
+public class SeatLedger implements DisposableBean, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatLedger.class);
+    private static final int MAX_ATTEMPTS = 10;
+
+    private final CourseCapacityRepository capacities;
+    private final EnrollmentRepository enrollments;
+    private final int leaseSize;
+    private final long recheckNanos;
+    private final ConcurrentHashMap<String, Seats> courses = new ConcurrentHashMap<>();
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public SeatLedger(CourseCapacityRepository capacities,
+                      EnrollmentRepository enrollments,
+                      @Value("${enrollments.seats.lease-size:20}") int leaseSize,
+                      @Value("${enrollments.seats.recheck:30s}") Duration recheck) {
+        this.capacities = capacities;
+        this.enrollments = enrollments;
+        this.leaseSize = Math.max(1, leaseSize);
+        this.recheckNanos = recheck.toNanos();
+    }
+
+    /**
+     * Takes one seat; false if the course is full.
+     *
+     * @throws IllegalStateException if the course's row kept changing under every attempt to lease seats
+     */
+    public boolean tryReserve(String courseCode, String semester) {
+        Seats course = seats(courseCode, semester);
+        if (!limited(course)) {
+            return true;
+        }
+        while (!course.take()) {
+            if (!lease(course)) {
+                rejected.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Gives back a seat taken by {@link #tryReserve} or held by a deleted enrollment */
+    public void release(String courseCode, String semester) {
+        Seats course = seats(courseCode, semester);
+        if (limited(course) && course.leased.incrementAndGet() > 2 * leaseSize) {
+            giveBack(course, course.leased.get() - leaseSize);
+        }
+    }
+
+    /**
+     * Sets the seat limit of a course. A course that had no limit starts with its current enrollments
+     * already allocated, so the limit also covers them.
+     */
+    public Status setCapacity(String courseCode, String semester, int capacity) {
+        CourseCapacity row = optimistically(() -> {
+            CourseCapacity existing = capacities.findByCourseCodeAndSemester(courseCode, semester)
+                    .orElseGet(() -> CourseCapacity.builder()
+                            .courseCode(courseCode)
+                            .semester(semester)
+                            .allocated((int) enrollments.countByCourseCodeAndSemester(courseCode, semester))
+                            .build());
+            existing.setCapacity(capacity);
+            return capacities.save(existing);
+        });
+        Seats course = seats(courseCode, semester);
+        course.limited = true;
+        log.info("Capacity of {} in {} set to {} ({} allocated)", courseCode, semester, capacity, row.getAllocated());
+        return status(row, course);
+    }
+
+    /** Limit and allocation of a course; empty if it has no limit */
+    public Optional<Status> status(String courseCode, String semester) {
+        Seats course = courses.get(key(courseCode, semester));
+        return capacities.findByCourseCodeAndSemester(courseCode, semester).map(row -> status(row, course));
+    }
+
+    private Status status(CourseCapacity row, Seats course) {
+        return new Status(row.getCourseCode(), row.getSemester(), row.getCapacity(), row.getAllocated(),
+                course == null ? 0 : course.leased.get());
+    }
+
+    private Seats seats(String courseCode, String semester) {
+        return courses.computeIfAbsent(key(courseCode, semester), k -> new Seats(courseCode, semester));
+    }
+
+    private boolean limited(Seats course) {
+        if (course.limited || System.nanoTime() - course.recheckAt < 0) {
+            return course.limited;
+        }
+        synchronized (course) {
+            if (!course.limited && System.nanoTime() - course.recheckAt >= 0) {
+                course.limited = capacities.existsByCourseCodeAndSemester(course.courseCode, course.semester);
+                course.recheckAt = System.nanoTime() + recheckNanos;
+            }
+            return course.limited;
+        }
+    }
+
+    /** Adds a block of seats to the local counter; false if the course has none left */
+    private boolean lease(Seats course) {
+        synchronized (course) {
+            if (course.leased.get() > 0) {
+                return true;
+            }
+            int granted = allocate(course, row -> {
+                int remaining = row.getCapacity() - row.getAllocated();
+                return remaining <= 0 ? 0 : Math.max(1, Math.min(leaseSize, remaining / 2));
+            });
+            if (granted > 0) {
+                leases.increment();
+                course.leased.addAndGet(granted);
+            }
+            return granted > 0;
+        }
+    }
+
+    /** Returns up to {@code count} unused seats to the course's row */
+    private void giveBack(Seats course, int count) {
+        int taken = course.takeUpTo(count);
+        if (taken == 0) {
+            return;
+        }
+        try {
+            allocate(course, row -> -Math.min(taken, row.getAllocated()));
+        } catch (RuntimeException e) {
+            course.leased.addAndGet(taken);
+            log.warn("Could not return {} seats of {} in {}: {}", taken, course.courseCode, course.semester, e.getMessage());
+        }
+    }
+
+    /**
+     * Applies the change {@code seats} computes from the current row with a version-checked update, re-reading
+     * the row when another instance updated it first. Returns the change applied, 0 if there is no row.
+     */
+    private int allocate(Seats course, ToIntFunction<CourseCapacity> seats) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            Optional<CourseCapacity> row = capacities.findByCourseCodeAndSemester(course.courseCode, course.semester);
+            int change = row.map(seats::applyAsInt).orElse(0);
+            if (change == 0 || capacities.allocate(row.get().getId(), row.get().getVersion(), change) == 1) {
+                return change;
+            }
+            log.debug("Seat allocation conflict on {} in {} (attempt {})", course.courseCode, course.semester, attempt);
+            backOff(attempt);
+        }
+        throw new IllegalStateException("Seats of " + course.courseCode + " in " + course.semester + " are contended, retry");
+    }
+
+    /** Saves the row, re-reading it when another instance changed it first */
+    private <T> T optimistically(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.get();
+            } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Capacity update conflict (attempt {}), retrying", attempt);
+                backOff(attempt);
+            }
+        }
+    }
+
+    // a random pause of up to 2^attempt ms, so two instances that keep colliding on a row fall out of step
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1L << Math.min(attempt, 6)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a seat allocation retry", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        courses.values().stream().filter(course -> course.limited).forEach(course -> giveBack(course, Integer.MAX_VALUE));
+    }
+
+    /** Seat blocks leased from the database as {@code enrollments.seats.leases}, refusals as {@code enrollments.seats.rejected} */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("enrollments.seats.leases", leases, LongAdder::sum)
+                .description("Seat blocks leased from course capacity rows")
+                .register(registry);
+        FunctionCounter.builder("enrollments.seats.rejected", rejected, LongAdder::sum)
+                .description("Enrollments refused because the course was full")
+                .register(registry);
+    }
+
+    private static String key(String courseCode, String semester) {
+        return courseCode + '|' + semester;
+    }
+
+    /** Seat limit of a course and how many of its seats this instance holds unused */
+    public record Status(String courseCode, String semester, int capacity, int allocated, int leasedHere) {}
+
+    private static final class Seats {
+        final String courseCode;
+        final String semester;
+        final AtomicInteger leased = new AtomicInteger();
+        volatile boolean limited;
+        volatile long recheckAt = System.nanoTime();
+
+        Seats(String courseCode, String semester) {
+            this.courseCode = courseCode;
+            this.semester = semester;
+        }
+
+        boolean take() {
+            return takeUpTo(1) == 1;
+        }
+
+        int takeUpTo(int count) {
+            while (true) {
+                int available = leased.get();
+                int taken = Math.min(available, count);
+                if (taken <= 0 || leased.compareAndSet(available, available - taken)) {
+                    return Math.max(taken, 0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.enrollments.service;
+
+import com.example.enrollments.cache.StudentCache;
+import com.example.enrollments.dto.StudentChangeDTO;
+import com.example.enrollments.feign.StudentClient;
+import com.example.enrollments.model.StudentFeedCursor;
+import com.example.enrollments.model.StudentReplica;
+import com.example.enrollments.repo.StudentFeedCursorRepository;
+import com.example.enrollments.repo.StudentReplicaRepository;
+import feign.Request;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.example.common.web.KeysetPage.NEXT_CURSOR_HEADER;
+
+/**
+ * Keeps the local {@link StudentReplica} table in step with students-service's change feed. A background
+ * thread long-polls {@code /students/changes} from the stored cursor and applies each page together with the
+ * new cursor in one transaction, so a restart resumes exactly where the last commit left off. Applied
+ * students are also evicted from the near-cache.
+ * <p>
+ * It calls the raw {@link StudentClient}: an unreachable feed only delays the replica, it must not count
+ * towards {@code studentsCB}, which guards request-path lookups. Failures back off exponentially. Each poll
+ * gets a read timeout of {@code wait} plus a margin for the empty page students-service answers when it runs out.
+ */
+@Component
+@ConditionalOnProperty(name = "students.feed.enabled", havingValue = "true", matchIfMissing = true)
+public class StudentFeedFollower implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentFeedFollower.class);
+    private static final Duration READ_MARGIN = Duration.ofSeconds(5);
+
+    private final StudentClient client;
+    private final StudentReplicaRepository replicas;
+    private final StudentFeedCursorRepository cursors;
+    private final StudentCache cache;
+    private final TransactionTemplate tx;
+    private final int pageSize;
+    private final Duration wait;
+    private final Request.Options pollOptions;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+    private final AtomicLong position = new AtomicLong();
+    private final LongAdder applied = new LongAdder();
+    private volatile Thread follower;
+
+    public StudentFeedFollower(StudentClient client,
+                               StudentReplicaRepository replicas,
+                               StudentFeedCursorRepository cursors,
+                               StudentCache cache,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${students.feed.page-size:500}") int pageSize,
+                               @Value("${students.feed.wait:20s}") Duration wait,
+                               @Value("${students.feed.backoff:1s}") Duration minBackoff,
+                               @Value("${students.feed.max-backoff:30s}") Duration maxBackoff,
+                               @Value("${spring.cloud.openfeign.client.config.students-service.connect-timeout:500}") int connectTimeoutMillis) {
+        this.client = client;
+        this.replicas = replicas;
+        this.cursors = cursors;
+        this.cache = cache;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.pageSize = pageSize;
+        this.wait = wait;
+        this.pollOptions = new Request.Options(connectTimeoutMillis, TimeUnit.MILLISECONDS,
+                wait.plus(READ_MARGIN).toMillis(), TimeUnit.MILLISECONDS, true);
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @Override
+    public void start() {
+        Thread thread = new Thread(this::follow, "student-feed-follower");
+        thread.setDaemon(true);
+        follower = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = follower;
+        follower = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return follower != null;
+    }
+
+    private void follow() {
+        long cursor = cursors.findById(StudentFeedCursor.ID).map(StudentFeedCursor::getPosition).orElse(0L);
+        position.set(cursor);
+        Duration backoff = minBackoff;
+        int failures = 0;
+        while (follower == Thread.currentThread()) {
+            try {
+                ResponseEntity<List<StudentChangeDTO>> page = client.changes(cursor, pageSize, wait.toMillis() + "ms", pollOptions);
+                List<StudentChangeDTO> changes = page.getBody() == null ? List.of() : page.getBody();
+                long next = nextCursor(page, changes, cursor);
+                if (next != cursor) {
+                    apply(changes, next);
+                    cursor = next;
+                    position.set(cursor);
+                }
+                if (failures > 0) {
+                    log.info("Student change feed reachable again, continuing from position {}", cursor);
+                }
+                failures = 0;
+                backoff = minBackoff;
+            } catch (RuntimeException e) {
+                if (failures++ == 0) {
+                    log.warn("Student change feed unavailable at position {}: {}", cursor, e.getMessage());
+                } else {
+                    log.debug("Student change feed still unavailable ({} failures): {}", failures, e.getMessage());
+                }
+                try {
+                    Thread.sleep(backoff.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoff = backoff.multipliedBy(2).compareTo(maxBackoff) > 0 ? maxBackoff : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    private void apply(List<StudentChangeDTO> changes, long next) {
+        tx.executeWithoutResult(status -> {
+            for (StudentChangeDTO change : changes) {
+                if (change.deleted()) {
+                    replicas.deleteById(change.studentId());
+                } else {
+                    replicas.save(StudentReplica.of(change));
+                }
+            }
+            StudentFeedCursor stored = cursors.findById(StudentFeedCursor.ID)
+                    .orElseGet(() -> new StudentFeedCursor(StudentFeedCursor.ID, 0));
+            stored.setPosition(next);
+            cursors.save(stored);
+        });
+        changes.forEach(change -> cache.evict(change.studentId()));
+        applied.add(changes.size());
+    }
+
+    private static long nextCursor(ResponseEntity<?> page, List<StudentChangeDTO> changes, long cursor) {
+        String header = page.getHeaders().getFirst(NEXT_CURSOR_HEADER);
+        if (header != null) {
+            return Long.parseLong(header);
+        }
+        return changes.isEmpty() ? cursor : changes.get(changes.size() - 1).position();
+    }
+
+    /** Current position as {@code students.feed.position} and applied changes as {@code students.feed.applied} */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("students.feed.position", position, AtomicLong::get)
+                .description("Change feed position the student replica reflects")
+                .register(registry);
+        FunctionCounter.builder("students.feed.applied", applied, LongAdder::sum)
+                .description("Student changes applied to the replica")
+                .register(registry);
+    }
+}
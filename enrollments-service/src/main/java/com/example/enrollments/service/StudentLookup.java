@@ -0,0 +1,93 @@
+package com.example.enrollments.service;
+
+import com.example.enrollments.cache.StudentCache;
+import com.example.enrollments.cache.StudentRequestCoalescer;
+import com.example.enrollments.dto.StudentDTO;
+import com.example.enrollments.feign.ResilientStudentClient;
+import com.example.enrollments.model.StudentReplica;
+import com.example.enrollments.repo.StudentReplicaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Student resolution for enrollments: near-cache first, then the local replica synced from the change
+ * feed, and only for students the replica does not have yet one coalesced call per id through the
+ * resilient client, so a burst of lookups for the same student costs a single remote call and a single
+ * circuit-breaker/retry outcome. Students already replicated resolve even while students-service is down.
+ * <p>
+ * {@code students.client.mode} selects how {@link #getAsync} waits for students-service: {@code async}
+ * hands the call to the {@code studentsBulkhead} pool, {@code sync} blocks the calling thread as before.
+ */
+@Service
+public class StudentLookup {
+
+    private final StudentCache cache;
+    private final StudentRequestCoalescer coalescer;
+    private final ResilientStudentClient client;
+    private final StudentReplicaRepository replicas;
+    private final Mode mode;
+
+    public enum Mode { SYNC, ASYNC }
+
+    public StudentLookup(StudentCache cache, StudentRequestCoalescer coalescer, ResilientStudentClient client,
+                         StudentReplicaRepository replicas, @Value("${students.client.mode:async}") Mode mode) {
+        this.cache = cache;
+        this.coalescer = coalescer;
+        this.client = client;
+        this.replicas = replicas;
+        this.mode = mode;
+    }
+
+    /**
+     * @throws NoSuchElementException if students-service does not know the id
+     * @throws IllegalStateException  if students-service is unavailable
+     */
+    public StudentDTO get(Long studentId) {
+        return cache.get(studentId, id -> replicated(id).orElseGet(() -> coalescer.get(id, client::getStudent)));
+    }
+
+    /**
+     * Student as a future; fails with the same exceptions as {@link #get}. In {@code sync} mode the
+     * lookup runs on the calling thread and the returned future is already complete.
+     */
+    public CompletableFuture<StudentDTO> getAsync(Long studentId) {
+        if (mode == Mode.SYNC) {
+            try {
+                return CompletableFuture.completedFuture(get(studentId));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return cache.getAsync(studentId, id -> replicated(id).map(CompletableFuture::completedFuture)
+                .orElseGet(() -> coalescer.getAsync(id, client::getStudentAsync)));
+    }
+
+    /** Students found for {@code studentIds}; ids neither cached nor replicated are fetched in one batch call */
+    public Map<Long, StudentDTO> getAll(Set<Long> studentIds) {
+        return cache.getAll(studentIds, missing -> {
+            List<StudentDTO> found = new ArrayList<>(missing.size());
+            Set<Long> remote = new HashSet<>(missing);
+            for (StudentReplica replica : replicas.findAllById(missing)) {
+                found.add(replica.toDto());
+                remote.remove(replica.getId());
+            }
+            if (!remote.isEmpty()) {
+                found.addAll(client.getStudents(remote));
+            }
+            return found;
+        });
+    }
+
+    private Optional<StudentDTO> replicated(Long studentId) {
+        return replicas.findById(studentId).map(StudentReplica::toDto);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.enrollments.web;
+
+import com.example.enrollments.dto.CourseCapacityDTO;
+import com.example.enrollments.service.SeatLedger;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Seat limits per course and semester. Semesters contain a slash ({@code 1/2025}), so both keys are query
+ * parameters on reads; courses without a limit answer 404.
+ */
+@RestController
+@RequestMapping("/enrollments/capacity")
+public class CourseCapacityController {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseCapacityController.class);
+    private final SeatLedger seats;
+
+    public CourseCapacityController(SeatLedger seats) {
+        this.seats = seats;
+    }
+
+    @GetMapping
+    public SeatLedger.Status get(@RequestParam(name = "courseCode") String courseCode,
+                                 @RequestParam(name = "semester") String semester) {
+        return seats.status(courseCode, semester)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "No seat limit for " + courseCode + " in " + semester));
+    }
+
+    @PutMapping
+    public SeatLedger.Status set(@Valid @RequestBody CourseCapacityDTO dto) {
+        log.info("PUT /enrollments/capacity -> courseCode={}, semester={}, capacity={}",
+                dto.courseCode(), dto.semester(), dto.capacity());
+        return seats.setCapacity(dto.courseCode(), dto.semester(), dto.capacity());
+    }
+}
@@ -1,66 +1,205 @@
 package com.example.enrollments.web;
 
+import com.example.common.web.KeysetPage;
+import com.example.common.web.WireFormats;
+import com.example.enrollments.cache.IdempotencyStore;
+import com.example.enrollments.dto.BulkEnrollmentDTO;
+import com.example.enrollments.dto.BulkEnrollmentResult;
 import com.example.enrollments.dto.EnrollmentDTO;
+import com.example.enrollments.dto.EnrollmentFilter;
+import com.example.enrollments.dto.EnrollmentView;
 import com.example.enrollments.model.Enrollment;
 import com.example.enrollments.service.EnrollmentService;
+import com.example.enrollments.service.EnrollmentStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/enrollments")
 public class EnrollmentController {
 
     private static final Logger log = LoggerFactory.getLogger(EnrollmentController.class);
+
     private final EnrollmentService service;
+    private final IdempotencyStore idempotency;
+    private final ObjectMapper objectMapper;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public EnrollmentController(EnrollmentService service) {
+    public EnrollmentController(EnrollmentService service,
+                                IdempotencyStore idempotency,
+                                ObjectMapper objectMapper,
+                                @Value("${enrollments.page.default-size:50}") int defaultPageSize,
+                                @Value("${enrollments.page.max-size:500}") int maxPageSize) {
         this.service = service;
+        this.idempotency = idempotency;
+        this.objectMapper = objectMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Filtered, keyset-paginated listing as JSON, Smile or CBOR (see {@link WireFormats}), e.g.
+     * {@code GET /enrollments?studentId=7&semester=1/2024}. Pass the {@value KeysetPage#NEXT_CURSOR_HEADER} value of
+     * the previous response as {@code after}; the header is absent on the last page.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, WireFormats.SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<List<EnrollmentView>> all(@RequestParam(name = "studentId", required = false) Long studentId,
+                                                @RequestParam(name = "courseCode", required = false) String courseCode,
+                                                @RequestParam(name = "semester", required = false) String semester,
+                                                @RequestParam(name = "after", required = false) Long after,
+                                                @RequestParam(name = "size", required = false) Integer size) {
+        int pageSize = KeysetPage.size(size, defaultPageSize, maxPageSize);
+        List<EnrollmentView> page = service.page(new EnrollmentFilter(studentId, courseCode, semester), after, pageSize)
+                .stream().map(EnrollmentView::of).toList();
+        return KeysetPage.of(page, pageSize, EnrollmentView::id);
+    }
+
+    /** {@code Accept: application/x-ndjson}: every enrollment matching the filters, streamed row by row from a DB cursor */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream(@RequestParam(name = "studentId", required = false) Long studentId,
+                                                        @RequestParam(name = "courseCode", required = false) String courseCode,
+                                                        @RequestParam(name = "semester", required = false) String semester) {
+        EnrollmentFilter filter = new EnrollmentFilter(studentId, courseCode, semester);
+        StreamingResponseBody body = out -> {
+            try {
+                service.streamMatching(filter, enrollment -> writeLine(out, enrollment));
+            } catch (UncheckedIOException e) {
+                log.warn("NDJSON stream of enrollments aborted: {}", e.getCause().getMessage());
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, Enrollment enrollment) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(EnrollmentView.of(enrollment)));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    @GetMapping
-    public List<Enrollment> all() {
-        return service.all();
+    /** Same filters and paging as {@link #all}, with student data resolved in one batched call per page */
+    @GetMapping("/details")
+    public ResponseEntity<List<EnrollmentService.EnrollmentDetails>> allDetails(
+            @RequestParam(name = "studentId", required = false) Long studentId,
+            @RequestParam(name = "courseCode", required = false) String courseCode,
+            @RequestParam(name = "semester", required = false) String semester,
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "size", required = false) Integer size) {
+        int pageSize = KeysetPage.size(size, defaultPageSize, maxPageSize);
+        List<EnrollmentService.EnrollmentDetails> page =
+                service.detailsPage(new EnrollmentFilter(studentId, courseCode, semester), after, pageSize);
+        return KeysetPage.of(page, pageSize, details -> details.enrollment().id());
     }
 
+    /** Total enrollments and counts per course, semester and student, without scanning the table */
+    @GetMapping("/stats")
+    public EnrollmentStats.Snapshot stats() {
+        return service.stats();
+    }
+
+    /**
+     * Enrollment with a strong ETag derived from its version and the negotiated format (see
+     * {@link WireFormats#etag}). A request whose {@code If-None-Match} still matches gets 304 after a
+     * version-only query, without loading or serializing the enrollment.
+     */
     @GetMapping("/{id}")
-    public Enrollment one(@PathVariable(name = "id") Long id) {
-        return service.byId(id);
+    public ResponseEntity<EnrollmentView> one(@PathVariable(name = "id") Long id, WebRequest request,
+                                              HttpServletResponse response) {
+        // set here rather than on the entity, so a 304 carries it as well
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = service.versionOf(id);
+            if (version.isPresent() && request.checkNotModified(WireFormats.etag(version.get(), accept))) {
+                return null;
+            }
+        }
+        Enrollment enrollment = service.byId(id);
+        return ResponseEntity.ok().eTag(WireFormats.etag(enrollment.getVersion(), accept)).body(EnrollmentView.of(enrollment));
     }
 
+    /**
+     * The request thread is released while students-service is consulted (see {@code students.client.mode});
+     * the response is written once the student check and insert complete. A retry carrying the same
+     * {@value IdempotencyStore#KEY_HEADER} gets the first response instead of creating a second enrollment.
+     */
     @PostMapping
-    public ResponseEntity<?> create(@Valid @RequestBody EnrollmentDTO dto) {
+    public CompletableFuture<ResponseEntity<EnrollmentView>> create(
+            @Valid @RequestBody EnrollmentDTO dto,
+            @RequestHeader(name = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
         log.info("POST /enrollments -> studentId={}, courseCode={}, semester={}",
                 dto.studentId(), dto.courseCode(), dto.semester());
 
-        try {
-            Enrollment created = service.create(dto);
-            return ResponseEntity.status(HttpStatus.CREATED).body(created);
-        } catch (NoSuchElementException ex) {
-            // e.g., studentId doesn't exist in StudentService
-            log.warn("Student with ID {} not found when creating enrollment", dto.studentId());
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
-        } catch (IllegalArgumentException ex) {
-            log.warn("Invalid data when creating enrollment: {}", ex.getMessage());
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
-        }
+        return idempotency.execute(idempotencyKey, List.of("POST", "/enrollments", dto), () -> createNow(dto));
     }
 
+    private CompletableFuture<ResponseEntity<EnrollmentView>> createNow(EnrollmentDTO dto) {
+        return service.createAsync(dto)
+                .thenApply(created -> ResponseEntity.status(HttpStatus.CREATED).body(EnrollmentView.of(created)))
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof IllegalArgumentException) {
+                        log.warn("Invalid data when creating enrollment: {}", cause.getMessage());
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, cause.getMessage());
+                    }
+                    throw ex instanceof CompletionException ce ? ce : new CompletionException(ex);
+                });
+    }
+
+    /**
+     * Enrolls one student in several courses in one transaction; the body reports the outcome per course.
+     * Accepts an {@value IdempotencyStore#KEY_HEADER} like {@link #create}.
+     */
+    @PostMapping("/bulk")
+    public CompletableFuture<ResponseEntity<BulkEnrollmentResult>> createBulk(
+            @Valid @RequestBody BulkEnrollmentDTO dto,
+            @RequestHeader(name = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
+        log.info("POST /enrollments/bulk -> studentId={}, courses={}", dto.studentId(), dto.courses().size());
+        return idempotency.execute(idempotencyKey, List.of("POST", "/enrollments/bulk", dto),
+                () -> CompletableFuture.completedFuture(ResponseEntity.ok(service.createBulk(dto))));
+    }
+
+    /** Accepts an {@value IdempotencyStore#KEY_HEADER} like {@link #create} */
     @PutMapping("/{id}")
-    public ResponseEntity<?> update(@PathVariable(name = "id") Long id,
-                                    @Valid @RequestBody EnrollmentDTO dto) {
+    public CompletableFuture<ResponseEntity<EnrollmentView>> update(
+            @PathVariable(name = "id") Long id,
+            @Valid @RequestBody EnrollmentDTO dto,
+            @RequestHeader(name = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
         log.info("PUT /enrollments/{} -> updating enrollment", id);
 
+        return idempotency.execute(idempotencyKey, List.of("PUT", "/enrollments/" + id, dto),
+                () -> CompletableFuture.completedFuture(updateNow(id, dto)));
+    }
+
+    private ResponseEntity<EnrollmentView> updateNow(Long id, EnrollmentDTO dto) {
         try {
             Enrollment updated = service.update(id, dto);
-            return ResponseEntity.ok(updated);
+            return ResponseEntity.ok(EnrollmentView.of(updated));
         } catch (NoSuchElementException ex) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
         } catch (IllegalArgumentException ex) {
@@ -80,7 +219,7 @@ public class EnrollmentController {
     }
 
     @GetMapping("/{id}/details")
-    public EnrollmentService.EnrollmentDetails details(@PathVariable(name = "id") Long id) {
-        return service.details(id);
+    public CompletableFuture<EnrollmentService.EnrollmentDetails> details(@PathVariable(name = "id") Long id) {
+        return service.detailsAsync(id);
     }
 }
@@ -0,0 +1,52 @@
+package com.example.enrollments.web;
+
+import com.example.enrollments.cache.StudentCache;
+import com.example.enrollments.cache.StudentRequestCoalescer;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Service-to-service endpoints for the student near-cache; students-service calls these directly per instance.
+ * The api-gateway answers 404 for {@code /<service-id>/internal/**}, so they are not reachable through it.
+ */
+@RestController
+@RequestMapping("/internal/student-cache")
+public class StudentCacheController {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentCacheController.class);
+    private final StudentCache cache;
+    private final StudentRequestCoalescer coalescer;
+
+    public StudentCacheController(StudentCache cache, StudentRequestCoalescer coalescer) {
+        this.cache = cache;
+        this.coalescer = coalescer;
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void evict(@PathVariable(name = "id") Long id) {
+        log.debug("Evicting student id={} from near-cache", id);
+        cache.evict(id);
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", cache.size());
+        body.put("hits", stats.hitCount());
+        body.put("misses", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("evictions", stats.evictionCount());
+        body.put("invalidations", cache.invalidationCount());
+        body.put("remoteCalls", coalescer.leaderCount());
+        body.put("coalescedCalls", coalescer.coalescedCount());
+        return body;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.enrollments;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The meters bound from this service's own components, tagged as management-defaults.yml asks */
+@SpringBootTest(properties = {"eureka.client.enabled=false", "students.feed.enabled=false"})
+class MetricsTest {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void shouldRegisterTheNearCacheMeters() {
+        assertThat(registry.find("cache.gets").tag("cache", "students").meters()).hasSize(2);
+        assertThat(registry.find("students.cache.invalidations").functionCounter()).isNotNull();
+    }
+
+    @Test
+    void shouldRegisterTheCoalescerMeters() {
+        assertThat(registry.find("students.lookups").tag("outcome", "remote").functionCounter()).isNotNull();
+        assertThat(registry.find("students.lookups").tag("outcome", "coalesced").functionCounter()).isNotNull();
+    }
+
+    @Test
+    void shouldRegisterTheBulkheadMeters() {
+        assertThat(registry.find("resilience4j.bulkhead.queue.capacity").tag("name", "studentsBulkhead").gauge())
+                .isNotNull();
+        assertThat(registry.find("resilience4j.bulkhead.thread.pool.size").tag("name", "studentsBulkhead").gauge())
+                .isNotNull();
+    }
+
+    @Test
+    void shouldTagEveryMeterWithTheApplication() {
+        assertThat(registry.get("students.lookups").tag("outcome", "remote").functionCounter().getId()
+                .getTag("application")).isEqualTo("enrollments-service");
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.enrollments.cache;
+
+import com.example.enrollments.model.Enrollment;
+import com.example.enrollments.repo.EnrollmentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(EntityCache.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityCacheTest {
+
+    @Autowired
+    private EnrollmentRepository repo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void shouldServeLookupsFromCacheAndFollowUpdatesAndDeletes() {
+        Enrollment saved = repo.save(Enrollment.builder().studentId(1L).courseCode("DS101").semester("1/2024").build());
+        CacheRegionStatistics region = entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getDomainDataRegionStatistics(EntityCache.ENROLLMENT_REGION);
+        long hitsBefore = region.getHitCount();
+
+        repo.findById(saved.getId());
+        repo.findById(saved.getId());
+        assertThat(region.getHitCount() - hitsBefore).isEqualTo(2);
+
+        saved.setCourseCode("CS50");
+        repo.save(saved);
+        assertThat(repo.findById(saved.getId())).get().extracting(Enrollment::getCourseCode).isEqualTo("CS50");
+
+        repo.deleteById(saved.getId());
+        assertThat(repo.findById(saved.getId())).isEmpty();
+    }
+}
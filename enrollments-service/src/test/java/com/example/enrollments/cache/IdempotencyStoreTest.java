@@ -0,0 +1,74 @@
+package com.example.enrollments.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(100, Duration.ofMinutes(1));
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void shouldReplayStoredResponseForRepeatedKey() {
+        ResponseEntity<String> first = store.execute("k1", "POST /enrollments", () -> created("enrollment 1")).join();
+        ResponseEntity<String> retry = store.execute("k1", "POST /enrollments", () -> created("enrollment 2")).join();
+
+        assertThat(executions).hasValue(1);
+        assertThat(first.getHeaders().containsKey(IdempotencyStore.REPLAYED_HEADER)).isFalse();
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getBody()).isEqualTo("enrollment 1");
+        assertThat(retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void shouldLetConcurrentDuplicateWaitForFirstExecution() {
+        CompletableFuture<ResponseEntity<String>> running = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<String>> first = store.execute("k1", "POST /enrollments", () -> running);
+        CompletableFuture<ResponseEntity<String>> duplicate = store.execute("k1", "POST /enrollments", () -> created("again"));
+
+        assertThat(duplicate).isNotDone();
+        running.complete(ResponseEntity.status(HttpStatus.CREATED).body("enrollment 1"));
+
+        assertThat(first.join().getBody()).isEqualTo("enrollment 1");
+        assertThat(duplicate.join().getBody()).isEqualTo("enrollment 1");
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void shouldForgetFailuresSoRetryRunsAgain() {
+        CompletableFuture<ResponseEntity<String>> failed = store.execute("k1", "POST /enrollments",
+                () -> CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE)));
+        assertThatThrownBy(failed::join).isInstanceOf(CompletionException.class);
+
+        assertThat(store.execute("k1", "POST /enrollments", () -> created("enrollment 1")).join().getBody())
+                .isEqualTo("enrollment 1");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void shouldRejectKeyReusedForDifferentRequest() {
+        store.execute("k1", List.of("POST", "/enrollments", "DS101"), () -> created("enrollment 1")).join();
+
+        assertThatThrownBy(() -> store.execute("k1", List.of("POST", "/enrollments", "CS50"), () -> created("other")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(store.execute(null, "POST /enrollments", () -> created("no key")).join().getBody()).isEqualTo("no key");
+        assertThat(executions).hasValue(2);
+    }
+
+    private CompletableFuture<ResponseEntity<String>> created(String body) {
+        executions.incrementAndGet();
+        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CREATED).body(body));
+    }
+}
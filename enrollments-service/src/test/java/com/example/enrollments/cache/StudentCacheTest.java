@@ -0,0 +1,99 @@
+package com.example.enrollments.cache;
+
+import com.example.enrollments.dto.StudentDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentCacheTest {
+
+    private final StudentCache cache = new StudentCache(100, Duration.ofMinutes(10));
+    private final StudentDTO before = new StudentDTO(1L, "Ana Petrovic", "ana@example.com", "001/2024");
+    private final StudentDTO after = new StudentDTO(1L, "Ana Petrovic Jovic", "ana@example.com", "001/2024");
+
+    @Test
+    void shouldCacheWhatWasLoaded() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> { loads.incrementAndGet(); return before; });
+
+        assertThat(cache.get(1L, id -> { loads.incrementAndGet(); return after; })).isSameAs(before);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void shouldNotCacheALoadThatAnEvictionOvertook() {
+        StudentDTO loaded = cache.get(1L, id -> {
+            // students-service changed the student after answering, and its eviction arrived first
+            cache.evict(id);
+            return before;
+        });
+
+        assertThat(loaded).isSameAs(before);
+        assertThat(cache.get(1L, id -> after)).isSameAs(after);
+    }
+
+    @Test
+    void shouldNotCacheAnAsyncLoadThatAnEvictionOvertook() {
+        CompletableFuture<StudentDTO> remote = new CompletableFuture<>();
+        CompletableFuture<StudentDTO> loaded = cache.getAsync(1L, id -> remote);
+
+        cache.evict(1L);
+        remote.complete(before);
+
+        assertThat(loaded.join()).isSameAs(before);
+        assertThat(cache.getAsync(1L, id -> CompletableFuture.completedFuture(after)).join()).isSameAs(after);
+    }
+
+    @Test
+    void shouldNotCacheABatchLoadThatAnEvictionOvertook() {
+        StudentDTO marko = new StudentDTO(2L, "Marko Nikolic", "marko@example.com", "002/2024");
+
+        Map<Long, StudentDTO> loaded = cache.getAll(List.of(1L, 2L), missing -> {
+            cache.evict(1L);
+            return List.of(before, marko);
+        });
+
+        assertThat(loaded).containsEntry(1L, before).containsEntry(2L, marko);
+        assertThat(cache.get(1L, id -> after)).isSameAs(after);
+        assertThat(cache.get(2L, id -> null)).isSameAs(marko);
+    }
+
+    @Test
+    void shouldNeverKeepAStaleLoadWhenEvictionsRaceWithLoads() throws InterruptedException {
+        for (int round = 0; round < 200; round++) {
+            StudentCache cache = new StudentCache(100, Duration.ofMinutes(10));
+            CountDownLatch loading = new CountDownLatch(1);
+            Thread evictor = new Thread(() -> {
+                await(loading);
+                cache.evict(1L);
+            });
+            evictor.start();
+            cache.get(1L, id -> {
+                loading.countDown();
+                Thread.onSpinWait();
+                return before;
+            });
+            evictor.join();
+
+            // whichever finished first, the eviction came after the load began, so "before" must not survive it
+            assertThat(cache.get(1L, id -> after)).isSameAs(after);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
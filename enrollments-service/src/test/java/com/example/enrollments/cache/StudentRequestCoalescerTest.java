@@ -0,0 +1,98 @@
+package com.example.enrollments.cache;
+
+import com.example.enrollments.dto.StudentDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StudentRequestCoalescerTest {
+
+    private final StudentRequestCoalescer coalescer = new StudentRequestCoalescer();
+
+    @Test
+    void shouldShareOneInFlightCallAmongConcurrentCallers() throws Exception {
+        int callers = 8;
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger remoteCalls = new AtomicInteger();
+        StudentDTO ana = new StudentDTO(1L, "Ana Petrovic", "ana@example.com", "001/2024");
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<StudentDTO>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> coalescer.get(1L, id -> {
+                    remoteCalls.incrementAndGet();
+                    await(release);
+                    return ana;
+                })));
+            }
+            while (coalescer.leaderCount() + coalescer.coalescedCount() < callers) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<StudentDTO> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(ana);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(remoteCalls).hasValue(1);
+        assertThat(coalescer.leaderCount()).isEqualTo(1);
+        assertThat(coalescer.coalescedCount()).isEqualTo(callers - 1);
+    }
+
+    @Test
+    void shouldPropagateFailureAndForgetIt() {
+        assertThatThrownBy(() -> coalescer.get(2L, id -> {
+            throw new IllegalStateException("StudentService unreachable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        StudentDTO marko = new StudentDTO(2L, "Marko Nikolic", "marko@example.com", "002/2024");
+        assertThat(coalescer.get(2L, id -> marko)).isSameAs(marko);
+    }
+
+    @Test
+    void shouldSharePendingAsyncCallWithoutBlockingCallers() {
+        CompletableFuture<StudentDTO> remote = new CompletableFuture<>();
+        AtomicInteger remoteCalls = new AtomicInteger();
+
+        CompletableFuture<StudentDTO> first = coalescer.getAsync(3L, id -> {
+            remoteCalls.incrementAndGet();
+            return remote;
+        });
+        CompletableFuture<StudentDTO> second = coalescer.getAsync(3L, id -> {
+            remoteCalls.incrementAndGet();
+            return remote;
+        });
+        second.cancel(false);
+        assertThat(first).isNotDone();
+
+        StudentDTO jovana = new StudentDTO(3L, "Jovana Ilic", "jovana@example.com", "003/2024");
+        remote.complete(jovana);
+
+        assertThat(first).isCompletedWithValue(jovana);
+        assertThat(remoteCalls).hasValue(1);
+        assertThat(coalescer.coalescedCount()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
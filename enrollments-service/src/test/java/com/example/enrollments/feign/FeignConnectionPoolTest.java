@@ -0,0 +1,106 @@
+package com.example.enrollments.feign;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeignConnectionPoolTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FeignHttpClientProperties properties = new FeignHttpClientProperties();
+    private HttpServer server;
+    private FeignConnectionPool pool;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/students", exchange -> {
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        if (pool != null) {
+            pool.close(CloseMode.IMMEDIATE);
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void shouldReuseOneKeptAliveConnectionAcrossCalls() throws IOException {
+        pool = pool();
+        HttpClientBuilder builder = HttpClients.custom().setConnectionManager(pool);
+        pool.customize(builder);
+        try (CloseableHttpClient client = builder.build()) {
+            for (int i = 0; i < 5; i++) {
+                int status = client.execute(new HttpGet("http://localhost:" + server.getAddress().getPort() + "/students"),
+                        response -> response.getCode());
+                assertThat(status).isEqualTo(200);
+            }
+
+            assertThat(count("httpcomponents.httpclient.connections.opened")).isEqualTo(1);
+            assertThat(count("httpcomponents.httpclient.connections.closed")).isZero();
+            assertThat(registry.get("httpcomponents.httpclient.pool.lease").tag("result", "leased").timer().count())
+                    .isEqualTo(5);
+            assertThat(registry.get("httpcomponents.httpclient.pool.total.connections").tag("state", "available")
+                    .gauge().value()).isEqualTo(1);
+        }
+        assertThat(count("httpcomponents.httpclient.connections.closed")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTimeOutLeasesBeyondThePerRouteLimit() throws Exception {
+        properties.setMaxConnectionsPerRoute(1);
+        pool = pool();
+        HttpRoute route = new HttpRoute(new HttpHost("localhost", server.getAddress().getPort()));
+
+        ConnectionEndpoint held = pool.lease("first", route, Timeout.ofSeconds(1), null).get(Timeout.ofSeconds(1));
+        assertThatThrownBy(() -> pool.lease("second", route, Timeout.ofMilliseconds(50), null).get(Timeout.ofMilliseconds(50)))
+                .isInstanceOf(TimeoutException.class);
+
+        assertThat(registry.get("httpcomponents.httpclient.pool.lease").tag("result", "timeout").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("httpcomponents.httpclient.pool.total.connections").tag("state", "leased")
+                .gauge().value()).isEqualTo(1);
+        pool.release(held, null, null);
+    }
+
+    private FeignConnectionPool pool() {
+        FeignConnectionPool pool = new FeignConnectionPool(properties, Duration.ofSeconds(30), Duration.ofSeconds(2));
+        pool.bindTo(registry);
+        return pool;
+    }
+
+    private double count(String name) {
+        return registry.get(name).functionCounter().count();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.enrollments.feign;
+
+import feign.Client;
+import feign.Feign;
+import feign.Param;
+import feign.RequestLine;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgingCapabilityTest {
+
+    interface Api {
+        @Hedged
+        @RequestLine("GET /students/{id}")
+        String hedged(@Param("id") long id);
+
+        @RequestLine("GET /students/{id}/plain")
+        String plain(@Param("id") long id);
+    }
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch slowResponseClosed = new CountDownLatch(1);
+    private HedgingCapability hedging;
+
+    @AfterEach
+    void stop() {
+        hedging.destroy();
+    }
+
+    @Test
+    void shouldAnswerFromTheSecondAttemptWhenTheFirstIsSlow() throws InterruptedException {
+        Api api = api(true, firstCallTakes(Duration.ofMillis(500)));
+
+        long start = System.nanoTime();
+        assertThat(api.hedged(7)).isEqualTo("fast");
+
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(400));
+        assertThat(calls).hasValue(2);
+        assertThat(count("sent")).isEqualTo(1);
+        assertThat(count("won")).isEqualTo(1);
+        assertThat(slowResponseClosed.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void shouldNotHedgeFastOrUnmarkedCalls() {
+        Api api = api(true, firstCallTakes(Duration.ofMillis(200)));
+
+        assertThat(api.plain(7)).isEqualTo("slow");
+        assertThat(api.hedged(7)).isEqualTo("fast");
+
+        assertThat(calls).hasValue(2);
+        assertThat(count("sent")).isZero();
+    }
+
+    @Test
+    void shouldLeaveTheClientAloneWhenDisabled() {
+        Client client = firstCallTakes(Duration.ZERO);
+        hedging = new HedgingCapability(false, Duration.ofMillis(50), 4, registry);
+
+        assertThat(hedging.enrich(client)).isSameAs(client);
+    }
+
+    private Api api(boolean enabled, Client client) {
+        hedging = new HedgingCapability(enabled, Duration.ofMillis(50), 4, registry);
+        return Feign.builder().client(client).addCapability(hedging).target(Api.class, "http://students-service");
+    }
+
+    /** The first call answers "slow" after {@code delay}, every other one "fast" at once */
+    private Client firstCallTakes(Duration delay) {
+        return (request, options) -> {
+            boolean first = calls.incrementAndGet() == 1;
+            if (first) {
+                try {
+                    Thread.sleep(delay.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = (first ? "slow" : "fast").getBytes(StandardCharsets.UTF_8);
+            return Response.builder()
+                    .status(200)
+                    .request(request)
+                    .body(new ByteArrayInputStream(body) {
+                        @Override
+                        public void close() {
+                            if (first) {
+                                slowResponseClosed.countDown();
+                            }
+                        }
+                    }, body.length)
+                    .build();
+        };
+    }
+
+    private double count(String outcome) {
+        return registry.get("students.client.hedges").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.enrollments.feign;
+
+import com.example.common.web.WireFormats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import feign.RequestTemplate;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentClientConfigurationTest {
+
+    private final StudentClientConfiguration configuration = new StudentClientConfiguration();
+
+    @Test
+    void shouldAskForTheConfiguredFormatWithJsonAsAFallback() {
+        RequestTemplate template = new RequestTemplate();
+
+        configuration.studentClientAccept("smile").apply(template);
+
+        assertThat(template.headers().get(HttpHeaders.ACCEPT))
+                .containsExactly(WireFormats.SMILE_VALUE + ", application/json;q=0.5");
+    }
+
+    @Test
+    void shouldWriteRequestBodiesAsJsonWhateverTheFormat() {
+        HttpMessageConverters converters = new HttpMessageConverters(false, List.of(
+                new MappingJackson2SmileHttpMessageConverter(new SmileMapper()),
+                new MappingJackson2HttpMessageConverter(new ObjectMapper())));
+        RequestTemplate template = new RequestTemplate();
+
+        configuration.studentClientEncoder(() -> converters).encode(List.of(1L, 2L), List.class, template);
+
+        assertThat(template.headers().get(HttpHeaders.CONTENT_TYPE)).containsExactly("application/json");
+        assertThat(new String(template.body(), StandardCharsets.UTF_8)).isEqualTo("[1,2]");
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.enrollments.repo;
+
+import com.example.enrollments.model.Enrollment;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class EnrollmentRepositoryTest {
+
+    @Autowired
+    private EnrollmentRepository repo;
+
+    @Test
+    void shouldStreamMatchingInIdOrder() {
+        repo.save(enrollment(1L, "DS101", "1/2024"));
+        repo.save(enrollment(2L, "DS101", "1/2024"));
+        repo.save(enrollment(1L, "CS50", "1/2024"));
+        repo.save(enrollment(1L, "DS101", "2/2024"));
+
+        try (Stream<Enrollment> all = repo.streamMatching(null, null, null);
+             Stream<Enrollment> filtered = repo.streamMatching(1L, null, "1/2024")) {
+            assertThat(all).hasSize(4);
+            assertThat(filtered).extracting(Enrollment::getCourseCode).containsExactly("DS101", "CS50");
+        }
+    }
+
+    @Test
+    void shouldCountPerCourseSemesterAndStudent() {
+        repo.save(enrollment(1L, "DS101", "1/2024"));
+        repo.save(enrollment(2L, "DS101", "1/2024"));
+        repo.save(enrollment(1L, "CS50", "2/2024"));
+
+        assertThat(repo.countPerCourse()).containsExactlyInAnyOrder(
+                new Object[]{"DS101", 2L}, new Object[]{"CS50", 1L});
+        assertThat(repo.countPerSemester()).containsExactlyInAnyOrder(
+                new Object[]{"1/2024", 2L}, new Object[]{"2/2024", 1L});
+        assertThat(repo.countPerStudent()).containsExactlyInAnyOrder(
+                new Object[]{1L, 2L}, new Object[]{2L, 1L});
+    }
+
+    private static Enrollment enrollment(Long studentId, String courseCode, String semester) {
+        return Enrollment.builder()
+                .studentId(studentId)
+                .courseCode(courseCode)
+                .semester(semester)
+                .build();
+    }
+}
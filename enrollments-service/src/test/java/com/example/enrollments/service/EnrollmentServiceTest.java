@@ -0,0 +1,283 @@
+package com.example.enrollments.service;
+
+import com.example.enrollments.cache.StudentCache;
+import com.example.enrollments.cache.StudentRequestCoalescer;
+import com.example.enrollments.dto.BulkEnrollmentDTO;
+import com.example.enrollments.dto.BulkEnrollmentResult;
+import com.example.enrollments.dto.CourseSelectionDTO;
+import com.example.enrollments.dto.EnrollmentDTO;
+import com.example.enrollments.dto.EnrollmentFilter;
+import com.example.enrollments.dto.StudentDTO;
+import com.example.enrollments.feign.ResilientStudentClient;
+import com.example.enrollments.feign.StudentClient;
+import com.example.enrollments.model.Enrollment;
+import com.example.enrollments.model.StudentReplica;
+import com.example.enrollments.repo.EnrollmentRepository;
+import com.example.enrollments.repo.StudentReplicaRepository;
+import feign.FeignException;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EnrollmentServiceTest {
+
+    @Mock
+    private EnrollmentRepository repo;
+
+    @Mock
+    private StudentClient studentClient;
+
+    @Mock
+    private StudentReplicaRepository replicas;
+
+    @Mock
+    private SeatLedger seats;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private StudentCache studentCache;
+    private EnrollmentStats stats;
+    private EnrollmentService service;
+
+    @BeforeEach
+    void setUp() {
+        studentCache = new StudentCache(100, Duration.ofMinutes(1));
+        StudentLookup lookup = new StudentLookup(studentCache, new StudentRequestCoalescer(),
+                new ResilientStudentClient(studentClient), replicas, StudentLookup.Mode.ASYNC);
+        stats = new EnrollmentStats(repo, Duration.ZERO);
+        service = new EnrollmentService(repo, lookup, Validation.buildDefaultValidatorFactory().getValidator(), seats, stats,
+                entityManager, Runnable::run);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldResolveStudentsOfPageWithOneBatchCall() {
+        when(repo.findBy(any(Specification.class), any())).thenReturn(List.of(
+                enrollment(1L, 10L, "DS101"),
+                enrollment(2L, 11L, "DS101"),
+                enrollment(3L, 10L, "CS50")));
+        when(studentClient.getStudents(Set.of(10L, 11L))).thenReturn(List.of(
+                new StudentDTO(10L, "Ana Petrovic", "ana@example.com", "001/2024")));
+
+        List<EnrollmentService.EnrollmentDetails> details =
+                service.detailsPage(new EnrollmentFilter(null, null, null), null, 3);
+
+        assertThat(details).hasSize(3);
+        assertThat(details.get(0).student().fullName()).isEqualTo("Ana Petrovic");
+        assertThat(details.get(1).student()).isNull();
+        assertThat(details.get(2).student().id()).isEqualTo(10L);
+        verify(studentClient, never()).getStudent(any());
+    }
+
+    @Test
+    void shouldServeRepeatedStudentLookupsFromNearCache() {
+        StudentDTO ana = new StudentDTO(10L, "Ana Petrovic", "ana@example.com", "001/2024");
+        Enrollment enrollment = enrollment(1L, 10L, "DS101");
+        when(repo.findById(1L)).thenReturn(Optional.of(enrollment));
+        when(studentClient.getStudent(10L)).thenReturn(ana);
+
+        service.details(1L);
+        service.details(1L);
+
+        verify(studentClient, times(1)).getStudent(10L);
+        assertThat(studentCache.stats().hitCount()).isEqualTo(1);
+
+        studentCache.evict(10L);
+        service.details(1L);
+
+        verify(studentClient, times(2)).getStudent(10L);
+    }
+
+    @Test
+    void shouldReportOutcomePerCourseInBulk() {
+        when(studentClient.getStudent(10L)).thenReturn(
+                new StudentDTO(10L, "Ana Petrovic", "ana@example.com", "001/2024"));
+        when(repo.findByStudentId(10L)).thenReturn(List.of(enrollment(1L, 10L, "DS101")));
+        when(seats.tryReserve("CS50", "1/2024")).thenReturn(true);
+        when(seats.tryReserve("MA20", "1/2024")).thenReturn(false);
+        when(repo.saveAll(anyList())).thenAnswer(inv -> {
+            List<Enrollment> rows = inv.getArgument(0);
+            long id = 100;
+            for (Enrollment row : rows) {
+                row.setId(id++);
+            }
+            return rows;
+        });
+
+        BulkEnrollmentResult result = service.createBulk(new BulkEnrollmentDTO(10L, List.of(
+                new CourseSelectionDTO("CS50", "1/2024"),
+                new CourseSelectionDTO("DS101", "1/2024"),
+                new CourseSelectionDTO("bad", "1/2024"),
+                new CourseSelectionDTO("MA20", "1/2024"),
+                new CourseSelectionDTO("CS50", "1/2024"))));
+
+        assertThat(result.items()).extracting(BulkEnrollmentResult.Item::status).containsExactly(
+                BulkEnrollmentResult.Status.CREATED,
+                BulkEnrollmentResult.Status.DUPLICATE,
+                BulkEnrollmentResult.Status.INVALID,
+                BulkEnrollmentResult.Status.FULL,
+                BulkEnrollmentResult.Status.DUPLICATE);
+        assertThat(result.items()).extracting(BulkEnrollmentResult.Item::enrollmentId)
+                .containsExactly(100L, null, null, null, null);
+        verify(studentClient, times(1)).getStudent(10L);
+    }
+
+    @Test
+    void shouldGiveBackBulkSeatsWhenLedgerCannotSettleOne() {
+        when(studentClient.getStudent(10L)).thenReturn(
+                new StudentDTO(10L, "Ana Petrovic", "ana@example.com", "001/2024"));
+        when(seats.tryReserve("CS50", "1/2024")).thenReturn(true);
+        when(seats.tryReserve("MA20", "1/2024")).thenThrow(new IllegalStateException("Seats of MA20 in 1/2024 are contended, retry"));
+
+        assertThatThrownBy(() -> service.createBulk(new BulkEnrollmentDTO(10L, List.of(
+                new CourseSelectionDTO("CS50", "1/2024"),
+                new CourseSelectionDTO("MA20", "1/2024"),
+                new CourseSelectionDTO("DS101", "1/2024")))))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        verify(seats).release("CS50", "1/2024");
+        verify(seats, never()).tryReserve("DS101", "1/2024");
+        verify(repo, never()).saveAll(anyList());
+    }
+
+    @Test
+    void shouldCreateAsyncAndMapUnknownStudentToNotFound() {
+        when(studentClient.getStudent(10L)).thenReturn(
+                new StudentDTO(10L, "Ana Petrovic", "ana@example.com", "001/2024"));
+        when(studentClient.getStudent(99L)).thenThrow(FeignException.NotFound.class);
+        when(seats.tryReserve("CS50", "1/2024")).thenReturn(true);
+        when(repo.save(any(Enrollment.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Enrollment created = service.createAsync(new EnrollmentDTO(null, 10L, "CS50", "1/2024")).join();
+
+        assertThat(created.getCourseCode()).isEqualTo("CS50");
+        assertThatThrownBy(() -> service.createAsync(new EnrollmentDTO(null, 99L, "CS50", "1/2024")).join())
+                .isInstanceOf(CompletionException.class)
+                .cause()
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+        verify(repo, times(1)).save(any(Enrollment.class));
+    }
+
+    @Test
+    void shouldCreateFromReplicaWhileStudentsServiceIsDown() {
+        when(replicas.findById(10L)).thenReturn(Optional.of(
+                new StudentReplica(10L, 0L, "Ana Petrovic", "ana@example.com", "001/2024")));
+        when(seats.tryReserve("CS50", "1/2024")).thenReturn(true);
+        when(repo.save(any(Enrollment.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Enrollment created = service.createAsync(new EnrollmentDTO(null, 10L, "CS50", "1/2024")).join();
+
+        assertThat(created.getStudentId()).isEqualTo(10L);
+        verify(studentClient, never()).getStudent(any());
+    }
+
+    @Test
+    void shouldRejectEnrollmentInFullCourseWithoutInsert() {
+        when(studentClient.getStudent(10L)).thenReturn(
+                new StudentDTO(10L, "Ana Petrovic", "ana@example.com", "001/2024"));
+        when(seats.tryReserve("CS50", "1/2024")).thenReturn(false);
+
+        assertThatThrownBy(() -> service.create(new EnrollmentDTO(null, 10L, "CS50", "1/2024")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        verify(repo, never()).save(any(Enrollment.class));
+    }
+
+    @Test
+    void shouldReleaseSeatWhenStudentIsAlreadyEnrolled() {
+        when(studentClient.getStudent(10L)).thenReturn(
+                new StudentDTO(10L, "Ana Petrovic", "ana@example.com", "001/2024"));
+        when(seats.tryReserve("CS50", "1/2024")).thenReturn(true);
+        when(repo.save(any(Enrollment.class))).thenThrow(new DataIntegrityViolationException("uk_enrollment_student_course_semester"));
+
+        assertThatThrownBy(() -> service.create(new EnrollmentDTO(null, 10L, "CS50", "1/2024")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        verify(seats).release("CS50", "1/2024");
+    }
+
+    @Test
+    void shouldFreeSeatOnDelete() {
+        when(repo.findById(1L)).thenReturn(Optional.of(enrollment(1L, 10L, "DS101")));
+
+        service.delete(1L);
+
+        verify(seats).release("DS101", "1/2024");
+        verify(seats, never()).tryReserve(anyString(), anyString());
+    }
+
+    @Test
+    void shouldMoveStatsOnCreateUpdateAndDelete() {
+        when(studentClient.getStudent(10L)).thenReturn(
+                new StudentDTO(10L, "Ana Petrovic", "ana@example.com", "001/2024"));
+        when(seats.tryReserve(anyString(), anyString())).thenReturn(true);
+        when(repo.save(any(Enrollment.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.create(new EnrollmentDTO(null, 10L, "DS101", "1/2024"));
+        service.create(new EnrollmentDTO(null, 10L, "CS50", "1/2024"));
+        when(repo.findById(1L)).thenReturn(Optional.of(enrollment(1L, 10L, "DS101")));
+        service.update(1L, new EnrollmentDTO(1L, 10L, "MA20", "2/2024"));
+        when(repo.findById(2L)).thenReturn(Optional.of(enrollment(2L, 10L, "CS50")));
+        service.delete(2L);
+
+        EnrollmentStats.Snapshot snapshot = service.stats();
+        assertThat(snapshot.total()).isEqualTo(1);
+        assertThat(snapshot.byCourse()).containsExactly(Map.entry("MA20", 1L));
+        assertThat(snapshot.bySemester()).containsExactly(Map.entry("2/2024", 1L));
+        assertThat(snapshot.byStudent()).containsExactly(Map.entry(10L, 1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFetchOnlyUnreplicatedStudentsOfPage() {
+        when(repo.findBy(any(Specification.class), any())).thenReturn(List.of(
+                enrollment(1L, 10L, "DS101"),
+                enrollment(2L, 11L, "DS101")));
+        when(replicas.findAllById(Set.of(10L, 11L))).thenReturn(List.of(
+                new StudentReplica(10L, 0L, "Ana Petrovic", "ana@example.com", "001/2024")));
+        when(studentClient.getStudents(Set.of(11L))).thenReturn(List.of(
+                new StudentDTO(11L, "Marko Nikolic", "marko@example.com", "002/2024")));
+
+        List<EnrollmentService.EnrollmentDetails> details =
+                service.detailsPage(new EnrollmentFilter(null, null, null), null, 2);
+
+        assertThat(details).extracting(d -> d.student().fullName()).containsExactly("Ana Petrovic", "Marko Nikolic");
+    }
+
+    private static Enrollment enrollment(Long id, Long studentId, String courseCode) {
+        return Enrollment.builder()
+                .id(id)
+                .studentId(studentId)
+                .courseCode(courseCode)
+                .semester("1/2024")
+                .build();
+    }
+}
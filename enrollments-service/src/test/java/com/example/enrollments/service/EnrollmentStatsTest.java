@@ -0,0 +1,114 @@
+package com.example.enrollments.service;
+
+import com.example.enrollments.model.Enrollment;
+import com.example.enrollments.repo.EnrollmentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EnrollmentStatsTest {
+
+    @Mock
+    private EnrollmentRepository repo;
+
+    @Test
+    void shouldCountAddsAndRemovesOnTopOfTheTable() {
+        when(repo.countPerCourse()).thenReturn(rows(new Object[]{"DS101", 2L}));
+        when(repo.countPerSemester()).thenReturn(rows(new Object[]{"1/2025", 2L}));
+        when(repo.countPerStudent()).thenReturn(rows(new Object[]{1L, 1L}, new Object[]{2L, 1L}));
+        EnrollmentStats stats = stats();
+
+        stats.added(enrollment(3L, "CS50"));
+        stats.removed(enrollment(1L, "DS101"));
+
+        EnrollmentStats.Snapshot snapshot = stats.snapshot();
+        assertThat(snapshot.total()).isEqualTo(2);
+        assertThat(snapshot.byCourse()).containsExactly(Map.entry("CS50", 1L), Map.entry("DS101", 1L));
+        assertThat(snapshot.byStudent()).containsOnlyKeys(2L, 3L);
+    }
+
+    @Test
+    void shouldIgnoreARemoveTheRebuildAlreadySaw() {
+        when(repo.countPerCourse()).thenReturn(List.of());
+        when(repo.countPerSemester()).thenReturn(List.of());
+        when(repo.countPerStudent()).thenReturn(List.of());
+        EnrollmentStats stats = stats();
+
+        stats.removed(enrollment(1L, "DS101"));
+        stats.added(enrollment(1L, "DS101"));
+
+        assertThat(stats.snapshot().byCourse()).containsExactly(Map.entry("DS101", 1L));
+    }
+
+    @Test
+    void shouldNeverCountBelowZeroWhileRebuildsRace() throws Exception {
+        when(repo.countPerCourse()).thenReturn(List.of());
+        when(repo.countPerSemester()).thenReturn(List.of());
+        when(repo.countPerStudent()).thenReturn(List.of());
+        EnrollmentStats stats = stats();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<EnrollmentStats.Snapshot> replaced = new ArrayList<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(5);
+        Future<?> rebuilds = pool.submit(() -> {
+            while (writing.get()) {
+                replaced.add(stats.snapshot());
+                stats.rebuild();
+            }
+        });
+        List<Future<?>> writers = new ArrayList<>();
+        for (long student = 1; student <= 4; student++) {
+            long studentId = student;
+            writers.add(pool.submit(() -> {
+                // a course per enrollment, so a count left below zero is never made up by a later add
+                for (int i = 0; i < 100_000; i++) {
+                    Enrollment enrollment = enrollment(studentId, "C" + studentId + "-" + i);
+                    stats.added(enrollment);
+                    stats.removed(enrollment);
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        writing.set(false);
+        rebuilds.get();
+        pool.shutdown();
+
+        replaced.add(stats.snapshot());
+        assertThat(replaced).hasSizeGreaterThan(1).allSatisfy(snapshot -> {
+            assertThat(snapshot.byCourse().values()).allMatch(count -> count > 0);
+            assertThat(snapshot.bySemester().values()).allMatch(count -> count > 0);
+            assertThat(snapshot.byStudent().values()).allMatch(count -> count > 0);
+        });
+        assertThat(stats.snapshot().byCourse()).isEmpty();
+    }
+
+    private EnrollmentStats stats() {
+        EnrollmentStats stats = new EnrollmentStats(repo, Duration.ZERO);
+        stats.afterSingletonsInstantiated();
+        return stats;
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+
+    private static Enrollment enrollment(long studentId, String courseCode) {
+        return Enrollment.builder().studentId(studentId).courseCode(courseCode).semester("1/2025").build();
+    }
+}
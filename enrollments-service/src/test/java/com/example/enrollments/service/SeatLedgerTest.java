@@ -0,0 +1,106 @@
+package com.example.enrollments.service;
+
+import com.example.enrollments.model.CourseCapacity;
+import com.example.enrollments.model.Enrollment;
+import com.example.enrollments.repo.CourseCapacityRepository;
+import com.example.enrollments.repo.EnrollmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The ledger commits every allocation on its own, as it does in the service
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeatLedgerTest {
+
+    @Autowired
+    private CourseCapacityRepository capacities;
+
+    @Autowired
+    private EnrollmentRepository enrollments;
+
+    @AfterEach
+    void cleanUp() {
+        enrollments.deleteAll();
+        capacities.deleteAll();
+    }
+
+    @Test
+    void shouldCountExistingEnrollmentsAndRefuseOnceFull() {
+        enrollments.save(Enrollment.builder().studentId(1L).courseCode("DS101").semester("1/2025").build());
+        SeatLedger seats = ledger(5);
+
+        assertThat(seats.tryReserve("DS101", "1/2025")).isTrue();
+        assertThat(seats.setCapacity("DS101", "1/2025", 3).allocated()).isEqualTo(1);
+        assertThat(seats.tryReserve("DS101", "1/2025")).isTrue();
+        assertThat(seats.tryReserve("DS101", "1/2025")).isTrue();
+        assertThat(seats.tryReserve("DS101", "1/2025")).isFalse();
+
+        seats.release("DS101", "1/2025");
+        assertThat(seats.tryReserve("DS101", "1/2025")).isTrue();
+        assertThat(seats.tryReserve("CS50", "1/2025")).as("course without a limit").isTrue();
+    }
+
+    @Test
+    void shouldNotOverbookAcrossInstances() throws Exception {
+        SeatLedger first = ledger(4);
+        SeatLedger second = ledger(4);
+        first.setCapacity("DS101", "1/2025", 50);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            SeatLedger instance = t % 2 == 0 ? first : second;
+            tasks.add(() -> {
+                int taken = 0;
+                for (int i = 0; i < 20; i++) {
+                    if (instance.tryReserve("DS101", "1/2025")) {
+                        taken++;
+                    }
+                }
+                return taken;
+            });
+        }
+        int taken = 0;
+        for (Future<Integer> result : pool.invokeAll(tasks)) {
+            taken += result.get();
+        }
+        pool.shutdown();
+
+        assertThat(taken).isEqualTo(50);
+        assertThat(capacity().getAllocated()).isEqualTo(50);
+    }
+
+    @Test
+    void shouldReturnUnusedSeatsOnShutdown() {
+        SeatLedger seats = ledger(10);
+        seats.setCapacity("DS101", "1/2025", 100);
+        seats.tryReserve("DS101", "1/2025");
+        assertThat(capacity().getAllocated()).isEqualTo(10);
+
+        seats.destroy();
+
+        assertThat(capacity().getAllocated()).isEqualTo(1);
+    }
+
+    private SeatLedger ledger(int leaseSize) {
+        return new SeatLedger(capacities, enrollments, leaseSize, Duration.ofMinutes(1));
+    }
+
+    private CourseCapacity capacity() {
+        return capacities.findByCourseCodeAndSemester("DS101", "1/2025").orElseThrow();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.enrollments.web;
+
+import com.example.common.web.KeysetPage;
+import com.example.common.web.WireFormats;
+import com.example.enrollments.model.Enrollment;
+import com.example.enrollments.repo.EnrollmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"eureka.client.enabled=false", "students.feed.enabled=false"})
+@AutoConfigureMockMvc
+class EnrollmentControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EnrollmentRepository repo;
+
+    @AfterEach
+    void clean() {
+        repo.deleteAll();
+    }
+
+    @Test
+    void shouldFilterAndPageByKeyset() throws Exception {
+        repo.save(enrollment(1L, "DS101", "1/2024"));
+        Long cs50 = repo.save(enrollment(1L, "CS50", "1/2024")).getId();
+        repo.save(enrollment(2L, "DS101", "1/2024"));
+        repo.save(enrollment(1L, "MA20", "1/2024"));
+        repo.save(enrollment(1L, "DS101", "2/2024"));
+
+        mockMvc.perform(get("/enrollments").param("studentId", "1").param("semester", "1/2024").param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(KeysetPage.NEXT_CURSOR_HEADER, String.valueOf(cs50)))
+                .andExpect(jsonPath("$[*].courseCode").value(contains("DS101", "CS50")));
+
+        mockMvc.perform(get("/enrollments").param("studentId", "1").param("semester", "1/2024").param("size", "2")
+                        .param("after", String.valueOf(cs50))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(KeysetPage.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$[*].courseCode").value(contains("MA20")));
+    }
+
+    @Test
+    void shouldReturnEverythingWithoutFilters() throws Exception {
+        repo.save(enrollment(1L, "DS101", "1/2024"));
+        repo.save(enrollment(2L, "CS50", "2/2024"));
+
+        mockMvc.perform(get("/enrollments").param("size", "10").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(KeysetPage.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void shouldAnswerMatchingIfNoneMatchWithNotModified() throws Exception {
+        Enrollment saved = repo.save(enrollment(1L, "DS101", "1/2024"));
+        String etag = "\"" + saved.getVersion() + "-json\"";
+
+        mockMvc.perform(get("/enrollments/{id}", saved.getId()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(jsonPath("$.courseCode").value("DS101"));
+
+        mockMvc.perform(get("/enrollments/{id}", saved.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/enrollments/{id}", saved.getId()).accept(WireFormats.SMILE)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WireFormats.SMILE))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + saved.getVersion() + "-smile\""));
+
+        mockMvc.perform(get("/enrollments/{id}", saved.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"-1\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(saved.getId()));
+    }
+
+    private static Enrollment enrollment(Long studentId, String courseCode, String semester) {
+        return Enrollment.builder()
+                .studentId(studentId)
+                .courseCode(courseCode)
+                .semester(semester)
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.enrollments.web;
+
+import com.example.enrollments.dto.StudentDTO;
+import com.example.enrollments.feign.StudentClient;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The resilience4j proxies around {@code ResilientStudentClient}, with a bulkhead of one thread and one queue slot.
+ * The held enrollments go through once released, so this context keeps them in a database of its own.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:students-bulkhead;DB_CLOSE_DELAY=-1;MODE=LEGACY",
+        "eureka.client.enabled=false",
+        "students.feed.enabled=false",
+        "resilience4j.thread-pool-bulkhead.instances.studentsBulkhead.coreThreadPoolSize=1",
+        "resilience4j.thread-pool-bulkhead.instances.studentsBulkhead.maxThreadPoolSize=1",
+        "resilience4j.thread-pool-bulkhead.instances.studentsBulkhead.queueCapacity=1"})
+@AutoConfigureMockMvc
+class StudentsBulkheadTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakers;
+
+    @Autowired
+    private ThreadPoolBulkheadRegistry bulkheads;
+
+    @MockBean
+    private StudentClient studentClient;
+
+    @AfterEach
+    void releaseStudentsService() {
+        release.countDown();
+    }
+
+    @Test
+    void shouldAnswerBusyWhenTheBulkheadIsFullWithoutOpeningTheBreaker() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        given(studentClient.getStudent(anyLong())).willAnswer(inv -> {
+            running.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            Long id = inv.getArgument(0);
+            return new StudentDTO(id, "Student " + id, "student" + id + "@example.com", "00" + id + "/2024");
+        });
+
+        create(1L);
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        create(2L);
+        assertThat(bulkheads.bulkhead("studentsBulkhead").getMetrics().getQueueDepth()).isEqualTo(1);
+
+        for (long studentId = 3; studentId <= 8; studentId++) {
+            mockMvc.perform(asyncDispatch(create(studentId)))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.error").value(containsString("busy")));
+        }
+
+        CircuitBreaker breaker = circuitBreakers.circuitBreaker("studentsCB");
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isZero();
+    }
+
+    private MvcResult create(long studentId) throws Exception {
+        return mockMvc.perform(post("/enrollments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentId\": " + studentId + ", \"courseCode\": \"DS101\", \"semester\": \"1/2024\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.loadtests;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/** How calls are issued during a run */
+interface LoadModel {
+
+    void run(RegistrationRush rush, LoadReport report, Duration duration) throws InterruptedException;
+
+    /**
+     * A fixed number of users, each sending its next call only after the previous one answered. Throughput
+     * follows the system's speed, so this shows capacity but hides the queueing a slow system causes.
+     */
+    record Closed(int users, Duration thinkTime) implements LoadModel {
+
+        @Override
+        public void run(RegistrationRush rush, LoadReport report, Duration duration) throws InterruptedException {
+            long deadline = System.nanoTime() + duration.toNanos();
+            ExecutorService pool = Executors.newFixedThreadPool(users);
+            for (int i = 0; i < users; i++) {
+                pool.execute(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        rush.call(report);
+                        if (!thinkTime.isZero()) {
+                            LockSupport.parkNanos(thinkTime.toNanos());
+                        }
+                    }
+                });
+            }
+            pool.shutdown();
+            if (!pool.awaitTermination(duration.toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS)) {
+                pool.shutdownNow();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "closed loop, " + users + " users, think time " + thinkTime.toMillis() + " ms";
+        }
+    }
+
+    /**
+     * Calls arrive at a fixed rate whether or not earlier ones have answered, like independent students
+     * do. Latency counts from the scheduled arrival, so a stalled system cannot hide its backlog.
+     * Arrivals beyond {@code maxInFlight} outstanding calls are dropped and reported.
+     */
+    record Open(double ratePerSecond, int maxInFlight) implements LoadModel {
+
+        @Override
+        public void run(RegistrationRush rush, LoadReport report, Duration duration) throws InterruptedException {
+            Semaphore inFlight = new Semaphore(maxInFlight);
+            double interval = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+            long start = System.nanoTime();
+            for (long arrival = 0; ; arrival++) {
+                long offset = (long) (arrival * interval);
+                if (offset >= duration.toNanos()) {
+                    break;
+                }
+                long scheduledAt = start + offset;
+                LockSupport.parkNanos(scheduledAt - System.nanoTime());
+                if (!inFlight.tryAcquire()) {
+                    report.drop();
+                    continue;
+                }
+                rush.callAsync(report, scheduledAt).whenComplete((ignored, failure) -> inFlight.release());
+            }
+            if (!inFlight.tryAcquire(maxInFlight, 1, TimeUnit.MINUTES)) {
+                throw new IllegalStateException((maxInFlight - inFlight.availablePermits()) + " calls still in flight");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "open loop, " + ratePerSecond + " calls/s, at most " + maxInFlight + " in flight";
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.loadtests;
+
+import com.example.loadtests.RegistrationRush.Operation;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Latency histograms and status counts per operation for one measured run */
+final class LoadReport {
+
+    /** Status recorded when no response arrived (timeout, refused or reset connection) */
+    static final int NO_RESPONSE = 0;
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Integer, LongAdder>> statuses = new EnumMap<>(Operation.class);
+    private final LongAdder dropped = new LongAdder();
+    private long startedAt;
+    private long finishedAt;
+
+    LoadReport() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            statuses.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    void start() {
+        startedAt = System.nanoTime();
+    }
+
+    void finish() {
+        finishedAt = System.nanoTime();
+    }
+
+    void record(Operation operation, long latencyNanos, int status) {
+        latencies.get(operation).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+        statuses.get(operation).computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    /** An open-loop arrival that was not sent because too many calls were already in flight */
+    void drop() {
+        dropped.increment();
+    }
+
+    void print(PrintStream out, String model, double circuitBreakerOpenings, String circuitBreakerState,
+               double studentConnectionsOpened) {
+        double seconds = (finishedAt - startedAt) / 1e9;
+        Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+        Map<Integer, Long> totalStatuses = new TreeMap<>();
+
+        out.printf("%nModel: %s, measured %.1f s%n%n", model, seconds);
+        out.printf("%-20s %9s %8s %9s %10s %10s %10s %10s  %s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "statuses");
+        for (Operation operation : Operation.values()) {
+            Histogram latency = latencies.get(operation);
+            Map<Integer, Long> counts = counts(statuses.get(operation));
+            total.add(latency);
+            counts.forEach((status, count) -> totalStatuses.merge(status, count, Long::sum));
+            row(out, operation.name(), latency, counts, seconds);
+        }
+        row(out, "TOTAL", total, totalStatuses, seconds);
+
+        out.printf("%nOpen-loop arrivals dropped: %d%n", dropped.sum());
+        out.printf("Circuit breaker %s: opened %.0f time(s), now %s%n", Topology.CIRCUIT_BREAKER, circuitBreakerOpenings,
+                circuitBreakerState);
+        out.printf("Connections opened to students-service: %.0f%n", studentConnectionsOpened);
+    }
+
+    private static void row(PrintStream out, String name, Histogram latency, Map<Integer, Long> statuses, double seconds) {
+        long requests = latency.getTotalCount();
+        long errors = statuses.entrySet().stream()
+                .filter(e -> e.getKey() / 100 != 2)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        out.printf("%-20s %9d %8d %9.1f %10.2f %10.2f %10.2f %10.2f  %s%n",
+                name, requests, errors, requests / seconds,
+                millis(latency, 50), millis(latency, 99), millis(latency, 99.9), latency.getMaxValue() / 1000.0,
+                statuses);
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static Map<Integer, Long> counts(Map<Integer, LongAdder> statuses) {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+}
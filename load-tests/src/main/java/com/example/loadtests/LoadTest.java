@@ -0,0 +1,96 @@
+package com.example.loadtests;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Boots the {@link Topology}, warms it up, runs the {@link RegistrationRush} under the chosen {@link LoadModel}
+ * and prints the report (also written to {@code --report}). Options, all {@code --name=value}:
+ * <pre>
+ * --model=closed|open    load model (closed)
+ * --users=32             closed loop: concurrent users
+ * --think-time=0ms       closed loop: pause between a user's calls
+ * --rate=200             open loop: calls per second
+ * --max-in-flight=5000   open loop: outstanding calls before arrivals are dropped
+ * --warmup=20s           unmeasured run first, also creates the students and enrollments later calls read
+ * --duration=60s         measured run
+ * --timeout=10s          per call
+ * --report=target/load-report.txt
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final String API_KEY = "load-test-key";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        LoadModel model = "open".equals(options.getOrDefault("model", "closed"))
+                ? new LoadModel.Open(Double.parseDouble(options.getOrDefault("rate", "200")),
+                        Integer.parseInt(options.getOrDefault("max-in-flight", "5000")))
+                : new LoadModel.Closed(Integer.parseInt(options.getOrDefault("users", "32")),
+                        duration(options, "think-time", "0ms"));
+        Duration warmup = duration(options, "warmup", "20s");
+        Duration duration = duration(options, "duration", "60s");
+        Path reportFile = Path.of(options.getOrDefault("report", "target/load-report.txt"));
+
+        try (Topology topology = Topology.start(API_KEY)) {
+            RegistrationRush rush = new RegistrationRush(topology.gatewayUri(), API_KEY, duration(options, "timeout", "10s"));
+            System.out.printf("Topology up, gateway at %s; warming up for %s%n", topology.gatewayUri(), warmup);
+            model.run(rush, new LoadReport(), warmup);
+
+            double openingsBefore = topology.circuitBreakerOpenings();
+            double connectionsBefore = topology.studentConnectionsOpened();
+            LoadReport report = new LoadReport();
+            System.out.printf("Measuring %s for %s%n", model, duration);
+            report.start();
+            model.run(rush, report, duration);
+            report.finish();
+            double openings = topology.circuitBreakerOpenings() - openingsBefore;
+            double connections = topology.studentConnectionsOpened() - connectionsBefore;
+
+            report.print(System.out, model.toString(), openings, topology.circuitBreakerState(), connections);
+            write(reportFile, out -> report.print(out, model.toString(), openings, topology.circuitBreakerState(),
+                    connections));
+            System.out.println("Report written to " + reportFile.toAbsolutePath());
+        }
+        // Eureka and HTTP client threads outlive the contexts
+        System.exit(0);
+    }
+
+    static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    static Duration duration(Map<String, String> options, String name, String defaultValue) {
+        return DurationStyle.detectAndParse(options.getOrDefault(name, defaultValue));
+    }
+
+    static void write(Path file, Consumer<PrintStream> content) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), true, StandardCharsets.UTF_8)) {
+            content.accept(out);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.loadtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Traffic of the first days of a registration period, sent through the gateway with the API key: new students
+ * sign up, each enrolls in several courses with one bulk request, and most requests read enrollment details
+ * back. Ids returned by earlier calls feed later ones, so reads hit rows the run itself created.
+ */
+final class RegistrationRush {
+
+    enum Operation { CREATE_STUDENT, BULK_ENROLL, ENROLLMENT_DETAILS }
+
+    /** Out of 100 calls; the rest are {@link Operation#ENROLLMENT_DETAILS} */
+    private static final int CREATE_STUDENT_SHARE = 20;
+    private static final int BULK_ENROLL_SHARE = 30;
+    private static final int COURSES_PER_STUDENT = 4;
+    private static final String SEMESTER = "1/2025";
+    private static final List<String> COURSES = List.of(
+            "DS101", "CS50", "MAT201", "FIZ110", "PRG102", "BP220", "OOP301", "SE410", "OS230", "RM340");
+    private static final List<String> FIRST_NAMES = List.of("Ana", "Marko", "Jovana", "Nikola", "Đorđe", "Milica", "Luka", "Teodora");
+    private static final List<String> LAST_NAMES = List.of("Petrović", "Nikolić", "Ilić", "Čolić", "Šarić", "Jovanović", "Marković");
+
+    private final HttpClient client;
+    private final URI gateway;
+    private final String apiKey;
+    private final Duration timeout;
+    private final ObjectMapper json = new ObjectMapper();
+    private final AtomicLong signUps = new AtomicLong();
+    private final IdPool students = new IdPool(100_000);
+    private final IdPool enrollments = new IdPool(100_000);
+
+    RegistrationRush(URI gateway, String apiKey, Duration timeout) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.gateway = gateway;
+        this.apiKey = apiKey;
+        this.timeout = timeout;
+    }
+
+    /** Sends the next call and waits for it; latency is measured from the moment it is sent */
+    void call(LoadReport report) {
+        Call call = next();
+        long start = System.nanoTime();
+        int status;
+        try {
+            HttpResponse<String> response = client.send(call.request(), HttpResponse.BodyHandlers.ofString());
+            status = onResponse(call.operation(), response);
+        } catch (IOException e) {
+            status = LoadReport.NO_RESPONSE;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        report.record(call.operation(), System.nanoTime() - start, status);
+    }
+
+    /**
+     * Sends the next call without waiting; latency is measured from {@code scheduledAt}, so time a call spent
+     * waiting for its turn counts against it.
+     */
+    CompletableFuture<Void> callAsync(LoadReport report, long scheduledAt) {
+        Call call = next();
+        return client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+                .handle((response, failure) -> {
+                    int status = failure == null ? onResponse(call.operation(), response) : LoadReport.NO_RESPONSE;
+                    report.record(call.operation(), System.nanoTime() - scheduledAt, status);
+                    return null;
+                });
+    }
+
+    private Call next() {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        if (roll >= CREATE_STUDENT_SHARE + BULK_ENROLL_SHARE) {
+            long enrollmentId = enrollments.any();
+            if (enrollmentId != 0) {
+                return new Call(Operation.ENROLLMENT_DETAILS, get("/api/enrollments/" + enrollmentId + "/details"));
+            }
+        }
+        if (roll >= CREATE_STUDENT_SHARE) {
+            long studentId = students.any();
+            if (studentId != 0) {
+                return new Call(Operation.BULK_ENROLL, post("/api/enrollments/bulk", Map.of(
+                        "studentId", studentId,
+                        "courses", courses())));
+            }
+        }
+        return new Call(Operation.CREATE_STUDENT, post("/api/students", newStudent()));
+    }
+
+    private int onResponse(Operation operation, HttpResponse<String> response) {
+        if (response.statusCode() / 100 == 2) {
+            if (operation == Operation.CREATE_STUDENT) {
+                students.add(read(response).path("id").asLong());
+            } else if (operation == Operation.BULK_ENROLL) {
+                for (JsonNode item : read(response).path("items")) {
+                    enrollments.add(item.path("enrollmentId").asLong());
+                }
+            }
+        }
+        return response.statusCode();
+    }
+
+    private Map<String, String> newStudent() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long n = signUps.incrementAndGet();
+        return Map.of(
+                "fullName", FIRST_NAMES.get(random.nextInt(FIRST_NAMES.size())) + " " + LAST_NAMES.get(random.nextInt(LAST_NAMES.size())),
+                "email", "student" + n + "@rush.example.com",
+                "indexNumber", String.format("%03d/%04d", n % 1000, n / 1000));
+    }
+
+    private static List<Map<String, String>> courses() {
+        List<String> shuffled = new ArrayList<>(COURSES);
+        Collections.shuffle(shuffled, ThreadLocalRandom.current());
+        return shuffled.subList(0, COURSES_PER_STUDENT).stream()
+                .map(course -> Map.of("courseCode", course, "semester", SEMESTER))
+                .toList();
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return request(path)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(gateway.resolve(path))
+                .timeout(timeout)
+                .header("X-API-KEY", apiKey);
+    }
+
+    /** The response body, or a missing node if it is not JSON; the call still counts by its status */
+    private JsonNode read(HttpResponse<String> response) {
+        try {
+            return json.readTree(response.body());
+        } catch (IOException e) {
+            return json.missingNode();
+        }
+    }
+
+    private record Call(Operation operation, HttpRequest request) {}
+
+    /** The last {@code capacity} ids seen, for picking a random one; 0 means none yet */
+    private static final class IdPool {
+
+        private final AtomicLongArray ids;
+        private final AtomicInteger added = new AtomicInteger();
+
+        IdPool(int capacity) {
+            this.ids = new AtomicLongArray(capacity);
+        }
+
+        void add(long id) {
+            if (id > 0) {
+                ids.set(Math.floorMod(added.getAndIncrement(), ids.length()), id);
+            }
+        }
+
+        long any() {
+            int size = Math.min(added.get(), ids.length());
+            return size == 0 ? 0 : ids.get(ThreadLocalRandom.current().nextInt(size));
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.loadtests;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+
+/**
+ * Time from launching a service's JVM to its first successful request, for each module and start mode. Every
+ * run is a fresh process on a free port, one at a time; the first {@code --warmup-runs} of each combination
+ * only warm the file cache and are not reported. Needs the fast-startup build
+ * ({@code mvn -Pfast-startup -DskipTests package}). Options, all {@code --name=value}:
+ * <pre>
+ * --modules=discovery-service,api-gateway,students-service,enrollments-service
+ * --modes=plain,aot,aot-cds   plain: java -jar; aot: AOT code and the fast-startup profile; aot-cds: plus CDS
+ * --runs=5                    measured starts per module and mode
+ * --warmup-runs=1
+ * --timeout=3m                per start
+ * --root=..                   project root, relative to the working directory
+ * --report=target/startup-report.txt
+ * </pre>
+ * Eureka registration and registry fetches are switched off in every mode so no run waits on a registry;
+ * process output goes to {@code target/startup-logs}.
+ */
+public final class StartupBenchmark {
+
+    private static final Map<String, String> FIRST_REQUEST = Map.of(
+            "discovery-service", "/eureka/apps",
+            "api-gateway", "/actuator/health",
+            "students-service", "/students?size=1",
+            "enrollments-service", "/enrollments?size=1");
+
+    private static final HttpClient HTTP = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTest.options(args);
+        List<String> modules = List.of(options.getOrDefault("modules",
+                "discovery-service,api-gateway,students-service,enrollments-service").split(","));
+        List<Mode> modes = Arrays.stream(options.getOrDefault("modes", "plain,aot,aot-cds").split(","))
+                .map(Mode::of).toList();
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        int warmupRuns = Integer.parseInt(options.getOrDefault("warmup-runs", "1"));
+        Duration timeout = LoadTest.duration(options, "timeout", "3m");
+        Path root = Path.of(options.getOrDefault("root", "..")).toAbsolutePath().normalize();
+        Path logs = Path.of("target/startup-logs");
+        Path reportFile = Path.of(options.getOrDefault("report", "target/startup-report.txt"));
+        Files.createDirectories(logs);
+
+        Map<String, long[]> results = new LinkedHashMap<>();
+        for (String module : modules) {
+            if (!FIRST_REQUEST.containsKey(module)) {
+                throw new IllegalArgumentException("Unknown module " + module + ", expected one of " + FIRST_REQUEST.keySet());
+            }
+            for (Mode mode : modes) {
+                long[] millis = new long[runs];
+                for (int run = -warmupRuns; run < runs; run++) {
+                    Path log = logs.resolve(module + "-" + mode.label + "-" + (run < 0 ? "warmup" + (-run) : run + 1) + ".log");
+                    long elapsed = timeToFirstRequest(root.resolve(module), module, mode, timeout, log);
+                    System.out.printf("%-20s %-8s %s %6d ms%n", module, mode.label, run < 0 ? "warmup" : "run " + (run + 1), elapsed);
+                    if (run >= 0) {
+                        millis[run] = elapsed;
+                    }
+                }
+                Arrays.sort(millis);
+                results.put(module + " " + mode.label, millis);
+            }
+        }
+
+        print(System.out, results, modes, runs);
+        LoadTest.write(reportFile, out -> print(out, results, modes, runs));
+        System.out.println("Report written to " + reportFile.toAbsolutePath());
+    }
+
+    private static long timeToFirstRequest(Path moduleDir, String module, Mode mode, Duration timeout, Path log)
+            throws IOException, InterruptedException {
+        // plain runs the executable jar; the other modes its extracted copy, which the CDS archive was recorded from
+        Path workingDir = moduleDir.resolve(mode.fastStartup ? "target/fast-startup" : "target");
+        String jar = module + "-1.0.0" + (mode.fastStartup ? "" : "-exec") + ".jar";
+        if (!Files.exists(workingDir.resolve(jar))) {
+            throw new IllegalStateException(workingDir.resolve(jar) + " is missing; build with mvn -Pfast-startup -DskipTests package");
+        }
+        int port = freePort();
+        List<String> command = new ArrayList<>(List.of("java"));
+        if (mode.cds) {
+            command.add("-XX:SharedArchiveFile=application.jsa");
+        }
+        if (mode.fastStartup && hasAotCode(workingDir.resolve(jar))) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(List.of("-jar", jar, "--server.port=" + port,
+                "--eureka.client.register-with-eureka=false", "--eureka.client.fetch-registry=false"));
+        if (mode.fastStartup) {
+            command.add("--spring.profiles.active=fast-startup");
+        }
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(workingDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        HttpRequest firstRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + FIRST_REQUEST.get(module)))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(module + " exited with " + process.exitValue() + ", see " + log);
+                }
+                if (succeeds(firstRequest)) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+                Thread.sleep(20);
+            }
+            throw new IllegalStateException(module + " did not answer within " + timeout + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static boolean hasAotCode(Path jar) throws IOException {
+        try (JarFile file = new JarFile(jar.toFile())) {
+            return file.stream().anyMatch(entry -> entry.getName().endsWith("__ApplicationContextInitializer.class"));
+        }
+    }
+
+    private static boolean succeeds(HttpRequest request) throws InterruptedException {
+        try {
+            int status = HTTP.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status >= 200 && status < 300;
+        } catch (IOException notListeningYet) {
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void print(PrintStream out, Map<String, long[]> results, List<Mode> modes, int runs) {
+        out.printf("%nTime to first successful request, %d runs each (ms)%n", runs);
+        out.printf("%-30s %8s %8s %8s %12s%n", "module / mode", "min", "median", "max", "vs plain");
+        results.forEach((key, millis) -> {
+            long[] plain = results.get(key.substring(0, key.indexOf(' ')) + " " + Mode.PLAIN.label);
+            String speedup = plain == null || key.endsWith(" " + Mode.PLAIN.label)
+                    ? "" : String.format("%.2fx", (double) median(plain) / median(millis));
+            out.printf("%-30s %8d %8d %8d %12s%n", key, millis[0], median(millis), millis[millis.length - 1], speedup);
+        });
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+
+    /** How a service is started; modules built without AOT code (discovery-service) get only the profile and CDS */
+    private record Mode(String label, boolean fastStartup, boolean cds) {
+
+        static final Mode PLAIN = new Mode("plain", false, false);
+        static final Mode AOT = new Mode("aot", true, false);
+        static final Mode AOT_CDS = new Mode("aot-cds", true, true);
+
+        static Mode of(String label) {
+            return switch (label) {
+                case "plain" -> PLAIN;
+                case "aot" -> AOT;
+                case "aot-cds" -> AOT_CDS;
+                default -> throw new IllegalArgumentException("Unknown mode " + label + ", expected plain, aot or aot-cds");
+            };
+        }
+    }
+}
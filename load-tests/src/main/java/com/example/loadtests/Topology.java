@@ -0,0 +1,172 @@
+package com.example.loadtests;
+
+import com.example.discovery.DiscoveryServiceApplication;
+import com.example.enrollments.EnrollmentsServiceApplication;
+import com.example.gateway.ApiGatewayApplication;
+import com.example.students.StudentsServiceApplication;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The whole system in one JVM: discovery-service, students-service, enrollments-service and api-gateway on
+ * random ports, registered with the in-process Eureka exactly as they would be in production.
+ * <p>
+ * Every module ships its own {@code application.yml}, and on the shared classpath only one of them would be
+ * found, so each context is pointed at the file from its own jar. The overrides below only shorten Eureka's
+ * intervals, quiet the per-request logging and lift the gateway rate limit so it does not cap the load.
+ */
+final class Topology implements AutoCloseable {
+
+    static final String CIRCUIT_BREAKER = "studentsCB";
+    private static final Duration REGISTRATION_TIMEOUT = Duration.ofSeconds(90);
+
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private ConfigurableApplicationContext enrollments;
+    private ConfigurableApplicationContext gateway;
+
+    static Topology start(String apiKey) {
+        Topology topology = new Topology();
+        try {
+            ConfigurableApplicationContext discovery = topology.run(DiscoveryServiceApplication.class, WebApplicationType.SERVLET,
+                    "--eureka.client.register-with-eureka=false",
+                    "--eureka.client.fetch-registry=false",
+                    "--eureka.server.enable-self-preservation=false",
+                    "--eureka.server.wait-time-in-ms-when-sync-empty=0",
+                    "--eureka.server.use-read-only-response-cache=false",
+                    "--eureka.server.response-cache-update-interval-ms=500");
+            String zone = "http://localhost:" + port(discovery) + "/eureka/";
+
+            ConfigurableApplicationContext students = topology.run(StudentsServiceApplication.class, WebApplicationType.SERVLET,
+                    client(zone));
+            topology.enrollments = topology.run(EnrollmentsServiceApplication.class, WebApplicationType.SERVLET,
+                    client(zone));
+            topology.gateway = topology.run(ApiGatewayApplication.class, WebApplicationType.REACTIVE,
+                    Stream.concat(Stream.of(client(zone)), Stream.of(
+                            "--gateway.api.key=" + apiKey,
+                            "--gateway.api.keys-file=",
+                            "--gateway.api.rate-limit.per-second=1000000",
+                            "--gateway.api.rate-limit.burst=1000000")).toArray(String[]::new));
+
+            awaitInstances(topology.gateway, "students-service", "enrollments-service");
+            awaitInstances(topology.enrollments, "students-service");
+            awaitInstances(students, "enrollments-service");
+            return topology;
+        } catch (RuntimeException e) {
+            topology.close();
+            throw e;
+        }
+    }
+
+    URI gatewayUri() {
+        return URI.create("http://localhost:" + port(gateway));
+    }
+
+    /** How many times the enrollments service's circuit breaker towards students-service has opened so far */
+    double circuitBreakerOpenings() {
+        return enrollments.getBean(MeterRegistry.class).find("resilience4j.circuitbreaker.transitions")
+                .tag("name", CIRCUIT_BREAKER)
+                .tag("to", "OPEN")
+                .counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    /** Connections the enrollments service's Feign pool has opened to students-service instances so far */
+    double studentConnectionsOpened() {
+        return enrollments.getBean(MeterRegistry.class).find("httpcomponents.httpclient.connections.opened")
+                .functionCounters().stream()
+                .mapToDouble(FunctionCounter::count)
+                .sum();
+    }
+
+    String circuitBreakerState() {
+        return enrollments.getBean(CircuitBreakerRegistry.class).circuitBreaker(CIRCUIT_BREAKER).getState().name();
+    }
+
+    @Override
+    public void close() {
+        List<ConfigurableApplicationContext> running = new ArrayList<>(contexts);
+        Collections.reverse(running);
+        running.forEach(ConfigurableApplicationContext::close);
+        contexts.clear();
+    }
+
+    private ConfigurableApplicationContext run(Class<?> application, WebApplicationType type, String... overrides) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.config.location=" + configOf(application),
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.open-in-view=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.io.github.resilience4j=WARN",
+                "--logging.level.org.springframework.cloud.gateway=WARN"));
+        if (type == WebApplicationType.SERVLET) {
+            args.add("--spring.cloud.gateway.enabled=false");
+        }
+        args.addAll(List.of(overrides));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(application)
+                .web(type)
+                .run(args.toArray(String[]::new));
+        contexts.add(context);
+        return context;
+    }
+
+    private static String[] client(String zone) {
+        return new String[] {
+                "--eureka.client.service-url.defaultZone=" + zone,
+                "--eureka.instance.hostname=localhost",
+                "--eureka.client.jersey.enabled=false",
+                "--eureka.instance.lease-renewal-interval-in-seconds=1",
+                "--eureka.client.initial-instance-info-replication-interval-seconds=1",
+                "--eureka.client.instance-info-replication-interval-seconds=1",
+                "--eureka.client.registry-fetch-interval-seconds=1",
+                "--spring.cloud.loadbalancer.cache.ttl=5s"
+        };
+    }
+
+    /** The {@code application.yml} next to {@code application}'s classes, whether they are a directory or a jar */
+    private static String configOf(Class<?> application) {
+        String location = application.getProtectionDomain().getCodeSource().getLocation().toString();
+        return location.endsWith(".jar") ? "jar:" + location + "!/application.yml" : location + "application.yml";
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static void awaitInstances(ConfigurableApplicationContext context, String... services) {
+        DiscoveryClient discovery = context.getBean(DiscoveryClient.class);
+        long deadline = System.nanoTime() + REGISTRATION_TIMEOUT.toNanos();
+        for (String service : services) {
+            while (discovery.getInstances(service).isEmpty()) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(context.getId() + " did not discover " + service
+                            + " within " + REGISTRATION_TIMEOUT);
+                }
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for " + service, e);
+                }
+            }
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package com.example.students;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
 @SpringBootApplication
 public class StudentsServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(StudentsServiceApplication.class, args);
     }
+
+    /** Even with lazy initialization Hibernate boots with the app, not inside the first request */
+    @Bean
+    static LazyInitializationExcludeFilter eagerEntityManagerFactory() {
+        return LazyInitializationExcludeFilter.forBeanTypes(EntityManagerFactory.class);
+    }
 }
@@ -0,0 +1,142 @@
+package com.example.students.cache;
+
+import com.example.students.model.Student;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Hibernate second-level cache for {@link Student} rows and the natural-key finders of {@code StudentRepository},
+ * kept in bounded Caffeine caches behind JCache. Hibernate replaces or drops entries on this instance's own
+ * updates and deletes; rows changed by other instances are evicted when the change feed reports them
+ * ({@link #evict}), and {@code students.entity-cache.ttl} bounds how long anything else can stay stale.
+ */
+@Component
+public class EntityCache implements HibernatePropertiesCustomizer, MeterBinder {
+
+    public static final String STUDENT_REGION = "student";
+    public static final String NATURAL_KEY_REGION = "student-natural-key";
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final CacheManager cacheManager;
+    private volatile SessionFactory sessionFactory;
+
+    public EntityCache(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                       @Value("${students.entity-cache.max-size:10000}") long maxSize,
+                       @Value("${students.entity-cache.ttl:10m}") Duration ttl) {
+        this.entityManagerFactory = entityManagerFactory;
+        // a manager of its own per application context; test contexts share the JVM and the provider
+        this.cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("students-entity-cache-" + System.identityHashCode(this)),
+                        getClass().getClassLoader());
+        cacheManager.createCache(STUDENT_REGION, bounded(maxSize, ttl));
+        cacheManager.createCache(NATURAL_KEY_REGION, bounded(maxSize, ttl));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, bounded(1000, ttl));
+        // one entry per table; evicting one would make Hibernate trust query results older than the last write
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, unbounded());
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maxSize, Duration ttl) {
+        return unbounded()
+                .setMaximumSize(OptionalLong.of(maxSize))
+                .setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+    }
+
+    // Hibernate's cache entries are immutable, so they are kept by reference rather than copied on every read
+    private static CaffeineConfiguration<Object, Object> unbounded() {
+        return new CaffeineConfiguration<>().setStoreByValue(false);
+    }
+
+    @Override
+    public void customize(Map<String, Object> properties) {
+        properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+        properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+        properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+        properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        // every region is created above with a bound; an unknown one is a mistake, not a reason for an unbounded cache
+        properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+    }
+
+    /** Drops students changed elsewhere, and the cached natural-key lookups that might still point at them */
+    public void evict(Collection<Long> studentIds) {
+        org.hibernate.Cache cache = sessionFactory().getCache();
+        for (Long id : studentIds) {
+            cache.evictEntityData(Student.class, id);
+        }
+        cache.evictQueryRegion(NATURAL_KEY_REGION);
+    }
+
+    private SessionFactory sessionFactory() {
+        SessionFactory current = sessionFactory;
+        if (current == null) {
+            current = entityManagerFactory.getObject().unwrap(SessionFactory.class);
+            sessionFactory = current;
+        }
+        return current;
+    }
+
+    /** Requests, puts and hit ratio per region as {@code hibernate.cache.*{region=...}} */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, STUDENT_REGION, false);
+        bind(registry, NATURAL_KEY_REGION, true);
+    }
+
+    private void bind(MeterRegistry registry, String region, boolean queryRegion) {
+        counter(registry, "hibernate.cache.requests", region, queryRegion, CacheRegionStatistics::getHitCount, "hit");
+        counter(registry, "hibernate.cache.requests", region, queryRegion, CacheRegionStatistics::getMissCount, "miss");
+        counter(registry, "hibernate.cache.puts", region, queryRegion, CacheRegionStatistics::getPutCount, null);
+        Gauge.builder("hibernate.cache.hit.ratio", this, self -> {
+                    CacheRegionStatistics stats = self.statistics(region, queryRegion);
+                    long hits = stats == null ? 0 : stats.getHitCount();
+                    long requests = stats == null ? 0 : hits + stats.getMissCount();
+                    return requests == 0 ? Double.NaN : (double) hits / requests;
+                })
+                .tag("region", region)
+                .description("Share of second-level cache lookups answered from the cache")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String region, boolean queryRegion,
+                         ToLongFunction<CacheRegionStatistics> count, String result) {
+        FunctionCounter.Builder<EntityCache> builder = FunctionCounter.builder(name, this, self -> {
+                    CacheRegionStatistics stats = self.statistics(region, queryRegion);
+                    return stats == null ? 0 : count.applyAsLong(stats);
+                })
+                .tag("region", region);
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        builder.register(registry);
+    }
+
+    // query regions only get statistics once the first cacheable query has run
+    private CacheRegionStatistics statistics(String region, boolean queryRegion) {
+        Statistics statistics = sessionFactory().getStatistics();
+        return queryRegion ? statistics.getQueryRegionStatistics(region) : statistics.getDomainDataRegionStatistics(region);
+    }
+}
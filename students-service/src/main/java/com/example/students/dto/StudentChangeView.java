@@ -0,0 +1,15 @@
+package com.example.students.dto;
+
+import com.example.students.model.StudentChange;
+
+import java.time.Instant;
+
+/** One entry of {@code GET /students/changes}; the student fields are null for tombstones */
+public record StudentChangeView(long position, Long studentId, boolean deleted, Long version,
+                                String fullName, String email, String indexNumber, Instant changedAt) {
+
+    public static StudentChangeView of(StudentChange c) {
+        return new StudentChangeView(c.getPosition(), c.getStudentId(), c.isDeleted(), c.getVersion(),
+                c.getFullName(), c.getEmail(), c.getIndexNumber(), c.getChangedAt());
+    }
+}
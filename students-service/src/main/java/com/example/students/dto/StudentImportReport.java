@@ -0,0 +1,18 @@
+package com.example.students.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of {@code POST /students/import}. Only the first {@code students.import.max-reported-errors}
+ * row errors are listed; {@code errorsTruncated} tells whether more were dropped.
+ */
+public record StudentImportReport(
+        long rowsRead,
+        long imported,
+        long rejected,
+        List<RowError> errors,
+        boolean errorsTruncated
+) {
+    /** {@code line} is 1-based and counts the CSV header line if present */
+    public record RowError(long line, String message) {}
+}
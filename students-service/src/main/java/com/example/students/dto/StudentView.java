@@ -0,0 +1,14 @@
+package com.example.students.dto;
+
+import com.example.students.model.Student;
+
+/**
+ * A student as the API returns it, in every format. Responses are written from this record rather than
+ * from the entity, so serializers never reflect over (or trigger loading of) Hibernate state.
+ */
+public record StudentView(Long id, Long version, String fullName, String email, String indexNumber) {
+
+    public static StudentView of(Student s) {
+        return new StudentView(s.getId(), s.getVersion(), s.getFullName(), s.getEmail(), s.getIndexNumber());
+    }
+}
@@ -1,29 +1,42 @@
 package com.example.students.model;
 
+import com.example.students.cache.EntityCache;
 import jakarta.persistence.*;
 
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCache.STUDENT_REGION)
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_student_email", columnNames = "email"),
+        @UniqueConstraint(name = "uk_student_index_number", columnNames = "indexNumber")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 
 public class Student {
+    // Pooled sequence instead of IDENTITY so bulk imports can use JDBC batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_seq")
+    @SequenceGenerator(name = "student_seq", sequenceName = "student_seq", allocationSize = 50)
     private Long id;
 
+    // Bumped on every update; also the source of the strong ETag served by GET /students/{id}
+    @Version
+    private Long version;
+
     @NotBlank
     @Size(min = 2, max = 80)
     private String fullName;
 
     @Email
     @NotBlank
-    @Column(unique = true)
     private String email;
 
     @NotBlank
     @Size(min = 4, max = 20)
-    @Column(unique = true)
     private String indexNumber; // npr. 2022/123
 }
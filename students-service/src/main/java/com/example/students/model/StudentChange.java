@@ -0,0 +1,51 @@
+package com.example.students.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * One entry of the student change feed (transactional outbox), written in the same transaction as the
+ * student itself. The feed is compacted: a student has at most one entry, holding its latest state or a
+ * tombstone, so reading the feed from position 0 yields every live student.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_student_change_student", columnNames = "studentId"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class StudentChange {
+    // Assigned from StudentFeedHead under its row lock, so positions grow in commit order
+    @Id
+    private Long position;
+
+    private Long studentId;
+
+    private boolean deleted;
+
+    // Student state after the change; null for tombstones
+    private Long version;
+    private String fullName;
+    private String email;
+    private String indexNumber;
+
+    private Instant changedAt;
+
+    public static StudentChange of(Student s) {
+        return StudentChange.builder()
+                .studentId(s.getId())
+                .version(s.getVersion())
+                .fullName(s.getFullName())
+                .email(s.getEmail())
+                .indexNumber(s.getIndexNumber())
+                .changedAt(Instant.now())
+                .build();
+    }
+
+    public static StudentChange tombstone(Long studentId) {
+        return StudentChange.builder()
+                .studentId(studentId)
+                .deleted(true)
+                .changedAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.students.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+/**
+ * Single row holding the last assigned change feed position. Writers lock it while appending, which
+ * orders their commits: a reader that has seen position n can never later find a committed n - 1.
+ */
+@Entity
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class StudentFeedHead {
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    private long position;
+}
@@ -0,0 +1,17 @@
+package com.example.students.repo;
+import com.example.students.model.StudentChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import java.util.Collection;
+import java.util.List;
+public interface StudentChangeRepository extends JpaRepository<StudentChange, Long> {
+    /** Next {@code limit} changes strictly after {@code position}, in feed order */
+    List<StudentChange> findByPositionGreaterThanOrderByPositionAsc(long position, Limit limit);
+
+    /** Drops the previous entries of these students before their new ones are appended (feed compaction) */
+    @Modifying
+    @Query("delete from StudentChange c where c.studentId in :studentIds")
+    int deleteByStudentIdIn(Collection<Long> studentIds);
+}
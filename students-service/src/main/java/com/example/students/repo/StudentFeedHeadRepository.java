@@ -0,0 +1,13 @@
+package com.example.students.repo;
+import com.example.students.model.StudentFeedHead;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import java.util.Optional;
+public interface StudentFeedHeadRepository extends JpaRepository<StudentFeedHead, Integer> {
+    /** The head row, locked until the end of the current transaction */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from StudentFeedHead h where h.id = " + StudentFeedHead.ID)
+    Optional<StudentFeedHead> lockHead();
+}
@@ -0,0 +1,7 @@
+package com.example.students.repo;
+
+/** Projection of the two natural keys of a student */
+public interface StudentKeys {
+    String getEmail();
+    String getIndexNumber();
+}
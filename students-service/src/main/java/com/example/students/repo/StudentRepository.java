@@ -1,8 +1,59 @@
 package com.example.students.repo;
+import com.example.students.cache.EntityCache;
 import com.example.students.model.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 public interface StudentRepository extends JpaRepository<Student, Long> {
+    /** Natural-key lookups answered from the query cache; any write to the table invalidates them */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCache.NATURAL_KEY_REGION)
+    })
     Optional<Student> findByEmail(String email);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCache.NATURAL_KEY_REGION)
+    })
     Optional<Student> findByIndexNumber(String indexNumber);
+    boolean existsByEmail(String email);
+    boolean existsByIndexNumber(String indexNumber);
+
+    /** Only the {@code @Version} of a student, for answering conditional GETs without loading the row */
+    @Query("select s.version from Student s where s.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    /** Natural keys of every student, for rebuilding in-memory key filters */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select s.email as email, s.indexNumber as indexNumber from Student s")
+    Stream<StudentKeys> streamKeys();
+
+    /** Which of the given emails are already taken, in one {@code IN} query */
+    @Query("select s.email from Student s where s.email in :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    /** Which of the given index numbers are already taken, in one {@code IN} query */
+    @Query("select s.indexNumber from Student s where s.indexNumber in :indexNumbers")
+    Set<String> findExistingIndexNumbers(Collection<String> indexNumbers);
+
+    /** Keyset page: next {@code limit} students with id strictly greater than {@code afterId} */
+    List<Student> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /** Cursor over the whole table; must be consumed inside a transaction and closed. Bypasses the entity cache */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select s from Student s order by s.id")
+    Stream<Student> streamAll();
 }
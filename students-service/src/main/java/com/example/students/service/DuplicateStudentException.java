@@ -0,0 +1,47 @@
+package com.example.students.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+
+/** 409 for a student whose email or index number is already taken. */
+public class DuplicateStudentException extends ResponseStatusException {
+
+    public enum Field { EMAIL, INDEX_NUMBER, UNKNOWN }
+
+    private final Field field;
+
+    private DuplicateStudentException(Field field, String reason) {
+        super(HttpStatus.CONFLICT, reason);
+        this.field = field;
+    }
+
+    public static DuplicateStudentException email() {
+        return new DuplicateStudentException(Field.EMAIL, "Email already exists");
+    }
+
+    public static DuplicateStudentException indexNumber() {
+        return new DuplicateStudentException(Field.INDEX_NUMBER, "Index already exists");
+    }
+
+    /** Maps a unique-constraint violation on {@code student} to the field it was about */
+    public static DuplicateStudentException from(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException cve && cve.getConstraintName() != null
+                ? cve.getConstraintName().toLowerCase(Locale.ROOT)
+                : "";
+        if (constraint.contains("uk_student_email")) {
+            return email();
+        }
+        if (constraint.contains("uk_student_index_number")) {
+            return indexNumber();
+        }
+        return new DuplicateStudentException(Field.UNKNOWN, "Email or index already exists");
+    }
+
+    public Field getField() {
+        return field;
+    }
+}
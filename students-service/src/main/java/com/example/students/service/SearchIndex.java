@@ -0,0 +1,187 @@
+package com.example.students.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix index over student names, emails and index numbers. Text is lower-cased and folded so that
+ * {@code Čolić}, {@code colic} and {@code ČOLIĆ} are the same token; {@code đ} is indexed both as {@code dj}
+ * and as {@code d}. Tokens live in a sorted map, so all tokens starting with a term are one range lookup.
+ * <p>
+ * Every query term must be a prefix of some token of a student. Matches are ranked by where the terms hit
+ * (name before index number before email, whole token before prefix), then by name and id. Safe for one
+ * writer and any number of readers; a reader racing with a write may see the student's old or new tokens.
+ */
+final class SearchIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NAME = 4;
+    private static final int INDEX_NUMBER = 2;
+    private static final int EMAIL = 1;
+
+    private final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, Document> documents = new ConcurrentHashMap<>();
+
+    void put(long id, String fullName, String email, String indexNumber) {
+        remove(id);
+        Document document = new Document(id, fullName, email, indexNumber, fold(fullName == null ? "" : fullName),
+                tokens(fullName, email, indexNumber));
+        documents.put(id, document);
+        for (Token token : document.tokens()) {
+            postings.computeIfAbsent(token.text(), t -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    void remove(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (Token token : document.tokens()) {
+            postings.computeIfPresent(token.text(), (t, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    void clear() {
+        documents.clear();
+        postings.clear();
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    /** Students matching every term of {@code query}, best first, skipping the first {@code offset} */
+    Result search(String query, int offset, int limit) {
+        List<String> terms = new ArrayList<>(terms(query));
+        if (terms.isEmpty()) {
+            return new Result(List.of(), 0);
+        }
+        // the longest term usually has the fewest candidates; the others are checked per candidate
+        terms.sort(Comparator.comparingInt(String::length).reversed());
+        Set<Long> candidates = new HashSet<>();
+        for (Set<Long> ids : withPrefix(terms.get(0))) {
+            candidates.addAll(ids);
+        }
+
+        Comparator<Hit> worstFirst = Comparator.comparingInt(Hit::score)
+                .thenComparing(hit -> hit.document().sortKey(), Comparator.reverseOrder())
+                .thenComparing(hit -> hit.document().id(), Comparator.reverseOrder());
+        PriorityQueue<Hit> best = new PriorityQueue<>(worstFirst);
+        int keep = offset + limit;
+        int total = 0;
+        for (Long id : candidates) {
+            Document document = documents.get(id);
+            int score = document == null ? 0 : document.score(terms);
+            if (score == 0) {
+                continue;
+            }
+            total++;
+            best.add(new Hit(document, score));
+            if (best.size() > keep) {
+                best.poll();
+            }
+        }
+
+        List<Document> ranked = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ranked.add(best.poll().document());
+        }
+        List<Document> page = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = ranked.size() - 1 - offset; i >= 0 && page.size() < limit; i--) {
+            page.add(ranked.get(i));
+        }
+        return new Result(page, total);
+    }
+
+    private Collection<Set<Long>> withPrefix(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+    }
+
+    /** Lower case without diacritics; {@code đ} becomes {@code dj} */
+    static String fold(String text) {
+        String lower = text.toLowerCase(Locale.ROOT).replace("đ", "dj");
+        return COMBINING_MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    /** Split and folded like the indexed text, so {@code ana-marija} and {@code o'neil} find what they name */
+    private static Set<String> terms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : WORD_SEPARATORS.split(fold(query))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static List<Token> tokens(String fullName, String email, String indexNumber) {
+        List<Token> tokens = new ArrayList<>();
+        for (String word : WORD_SEPARATORS.split(fullName == null ? "" : fullName)) {
+            if (!word.isEmpty()) {
+                tokens.add(new Token(fold(word), NAME));
+                if (word.toLowerCase(Locale.ROOT).contains("đ")) {
+                    tokens.add(new Token(fold(word.replace('Đ', 'D').replace('đ', 'd')), NAME));
+                }
+            }
+        }
+        if (indexNumber != null) {
+            addWithParts(tokens, fold(indexNumber), INDEX_NUMBER);
+        }
+        if (email != null) {
+            addWithParts(tokens, fold(email), EMAIL);
+        }
+        return tokens;
+    }
+
+    private static void addWithParts(List<Token> tokens, String value, int weight) {
+        tokens.add(new Token(value, weight));
+        for (String part : WORD_SEPARATORS.split(value)) {
+            if (!part.isEmpty() && !part.equals(value)) {
+                tokens.add(new Token(part, weight));
+            }
+        }
+    }
+
+    record Result(List<Document> page, int total) {}
+
+    record Document(long id, String fullName, String email, String indexNumber, String sortKey, List<Token> tokens) {
+
+        /** Sum of the best hit of every term; 0 if some term hits nothing */
+        int score(List<String> terms) {
+            int score = 0;
+            for (String term : terms) {
+                int best = 0;
+                for (Token token : tokens) {
+                    if (token.text().startsWith(term)) {
+                        best = Math.max(best, token.text().length() == term.length() ? 2 * token.weight() : token.weight());
+                    }
+                }
+                if (best == 0) {
+                    return 0;
+                }
+                score += best;
+            }
+            return score;
+        }
+    }
+
+    record Token(String text, int weight) {}
+
+    private record Hit(Document document, int score) {}
+}
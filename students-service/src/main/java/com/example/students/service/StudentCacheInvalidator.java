@@ -0,0 +1,76 @@
+package com.example.students.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells every instance of the services that keep a student near-cache (enrollments-service)
+ * to drop a changed student. Runs after commit on a small bounded executor so writes never wait
+ * on remote instances; if the queue is full the oldest notification is dropped and the
+ * cache TTL on the other side takes over.
+ */
+@Component
+public class StudentCacheInvalidator implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentCacheInvalidator.class);
+
+    private final DiscoveryClient discoveryClient;
+    private final List<String> targets;
+    private final RestClient restClient;
+    private final ThreadPoolExecutor executor;
+
+    public StudentCacheInvalidator(DiscoveryClient discoveryClient,
+                                   @Value("${students.cache-invalidation.targets:enrollments-service}") List<String> targets,
+                                   @Value("${students.cache-invalidation.timeout:500ms}") Duration timeout) {
+        this.discoveryClient = discoveryClient;
+        this.targets = targets;
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+
+        this.executor = new ThreadPoolExecutor(1, 2, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1000), new ThreadPoolExecutor.DiscardOldestPolicy());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        executor.execute(() -> invalidate(event.studentId()));
+    }
+
+    private void invalidate(Long studentId) {
+        for (String serviceId : targets) {
+            for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+                try {
+                    restClient.delete()
+                            .uri(instance.getUri() + "/internal/student-cache/{id}", studentId)
+                            .retrieve()
+                            .toBodilessEntity();
+                } catch (Exception e) {
+                    log.warn("Could not invalidate student id={} on {} {}: {}",
+                            studentId, serviceId, instance.getUri(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.students.service;
+
+import com.example.students.model.StudentChange;
+import com.example.students.repo.StudentChangeRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the student change feed, optionally long-polling: a reader that is already caught up is parked
+ * without holding a thread until a transaction appends past its position or its wait runs out.
+ */
+@Service
+public class StudentChangeFeed implements DisposableBean {
+
+    private final StudentChangeRepository changes;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    // Wakeups query on their own threads, never on the committing request's
+    private final ExecutorService wakeups = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "student-feed-wakeup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StudentChangeFeed(StudentChangeRepository changes) {
+        this.changes = changes;
+    }
+
+    /** Up to {@code limit} changes after {@code position}, in feed order */
+    public List<StudentChange> after(long position, int limit) {
+        return changes.findByPositionGreaterThanOrderByPositionAsc(position, Limit.of(limit));
+    }
+
+    /**
+     * Like {@link #after} but, when there is nothing yet, completes as soon as something is appended or
+     * with an empty list once {@code wait} has passed.
+     */
+    public CompletableFuture<List<StudentChange>> poll(long position, int limit, Duration wait) {
+        Waiter waiter = new Waiter(position, limit, new CompletableFuture<>());
+        // Registered before the first read, so an append racing with it still wakes us
+        waiters.add(waiter);
+        waiter.result().whenComplete((page, error) -> waiters.remove(waiter));
+        List<StudentChange> page = after(position, limit);
+        if (!page.isEmpty() || wait.isZero()) {
+            waiter.result().complete(page);
+        } else {
+            waiter.result().completeOnTimeout(List.of(), wait.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return waiter.result();
+    }
+
+    /** Number of readers currently parked */
+    public int waiting() {
+        return waiters.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFeedAdvanced(StudentFeedAdvancedEvent event) {
+        for (Waiter waiter : waiters) {
+            if (waiter.position() < event.position() && waiters.remove(waiter)) {
+                wakeups.execute(() -> {
+                    try {
+                        waiter.result().complete(after(waiter.position(), waiter.limit()));
+                    } catch (RuntimeException e) {
+                        waiter.result().completeExceptionally(e);
+                    }
+                });
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        wakeups.shutdownNow();
+        waiters.forEach(waiter -> waiter.result().complete(List.of()));
+    }
+
+    private record Waiter(long position, int limit, CompletableFuture<List<StudentChange>> result) {}
+}
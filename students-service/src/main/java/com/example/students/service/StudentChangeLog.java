@@ -0,0 +1,86 @@
+package com.example.students.service;
+
+import com.example.students.model.Student;
+import com.example.students.model.StudentChange;
+import com.example.students.model.StudentFeedHead;
+import com.example.students.repo.StudentChangeRepository;
+import com.example.students.repo.StudentFeedHeadRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Appends to the student change feed inside the caller's transaction, so a change is in the feed exactly
+ * when the student write committed. Call it as the last step of the transaction: it locks the feed head
+ * until commit, which serializes concurrent writers for that short moment.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class StudentChangeLog {
+
+    private final StudentChangeRepository changes;
+    private final StudentFeedHeadRepository heads;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate newTransaction;
+
+    public StudentChangeLog(StudentChangeRepository changes, StudentFeedHeadRepository heads, EntityManager entityManager,
+                            ApplicationEventPublisher events, PlatformTransactionManager transactionManager) {
+        this.changes = changes;
+        this.heads = heads;
+        this.entityManager = entityManager;
+        this.events = events;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** New students; they have no earlier entries to compact */
+    public void recordCreated(Collection<Student> students) {
+        append(students.stream().map(StudentChange::of).toList(), false);
+    }
+
+    public void recordUpdated(Student student) {
+        append(List.of(StudentChange.of(student)), true);
+    }
+
+    public void recordDeleted(Long studentId) {
+        append(List.of(StudentChange.tombstone(studentId)), true);
+    }
+
+    private void append(List<StudentChange> entries, boolean compact) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        StudentFeedHead head = lockHead();
+        if (compact) {
+            changes.deleteByStudentIdIn(entries.stream().map(StudentChange::getStudentId).toList());
+        }
+        long position = head.getPosition();
+        for (StudentChange entry : entries) {
+            entry.setPosition(++position);
+            entityManager.persist(entry);
+        }
+        head.setPosition(position);
+        events.publishEvent(new StudentFeedAdvancedEvent(position));
+    }
+
+    private StudentFeedHead lockHead() {
+        return heads.lockHead().orElseGet(() -> {
+            try {
+                newTransaction.executeWithoutResult(status -> heads.saveAndFlush(new StudentFeedHead(StudentFeedHead.ID, 0)));
+            } catch (DataIntegrityViolationException e) {
+                // another writer created the head first
+            }
+            return heads.lockHead().orElseThrow();
+        });
+    }
+}
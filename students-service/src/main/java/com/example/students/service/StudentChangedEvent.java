@@ -0,0 +1,4 @@
+package com.example.students.service;
+
+/** Published by {@link StudentService} after a student was updated or deleted. */
+public record StudentChangedEvent(Long studentId, boolean deleted) {}
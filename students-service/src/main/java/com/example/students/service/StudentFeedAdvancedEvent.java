@@ -0,0 +1,4 @@
+package com.example.students.service;
+
+/** Published by {@link StudentChangeLog} when a transaction appended to the change feed, up to {@code position}. */
+public record StudentFeedAdvancedEvent(long position) {}
@@ -0,0 +1,259 @@
+package com.example.students.service;
+
+import com.example.students.dto.StudentDTO;
+import com.example.students.dto.StudentImportReport;
+import com.example.students.model.Student;
+import com.example.students.repo.StudentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.jpa.SpecHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk import of students from a CSV ({@code fullName,email,indexNumber}, optional header line) or
+ * NDJSON ({@link StudentDTO} per line) stream. The body is parsed line by line and handled in chunks:
+ * each chunk is validated, checked for taken emails/index numbers with one {@code IN} query per key,
+ * and inserted as one JDBC batch in its own transaction, so memory use is bounded by the chunk size.
+ * Each chunk's change feed entries are appended in that same transaction.
+ */
+@Service
+public class StudentImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final Logger log = LoggerFactory.getLogger(StudentImportService.class);
+    private static final String CSV_HEADER = "fullName,email,indexNumber";
+
+    private final StudentRepository repo;
+    private final StudentKeyFilter keyFilter;
+    private final StudentChangeLog changeLog;
+    private final EntityManager entityManager;
+    private final TransactionTemplate tx;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public StudentImportService(StudentRepository repo,
+                                StudentKeyFilter keyFilter,
+                                StudentChangeLog changeLog,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                @Value("${students.import.chunk-size:500}") int chunkSize,
+                                @Value("${students.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.repo = repo;
+        this.keyFilter = keyFilter;
+        this.changeLog = changeLog;
+        this.entityManager = entityManager;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public StudentImportReport importStudents(InputStream body, Format format) throws IOException {
+        Progress progress = new Progress();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && format == Format.CSV && isCsvHeader(line))) {
+                    continue;
+                }
+                progress.rowsRead++;
+                try {
+                    chunk.add(new Row(lineNumber, parse(line, format)));
+                } catch (IllegalArgumentException e) {
+                    progress.reject(lineNumber, e.getMessage());
+                }
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, progress);
+        }
+        log.info("Student import finished: read={} imported={} rejected={}",
+                progress.rowsRead, progress.imported, progress.rejected);
+        return progress.toReport();
+    }
+
+    private void importChunk(List<Row> chunk, Progress progress) {
+        List<Row> valid = new ArrayList<>(chunk.size());
+        Set<String> chunkEmails = new HashSet<>();
+        Set<String> chunkIndexes = new HashSet<>();
+        for (Row row : chunk) {
+            Set<ConstraintViolation<StudentDTO>> violations = validator.validate(row.dto());
+            if (!violations.isEmpty()) {
+                progress.reject(row.line(), violations.iterator().next().getMessage());
+            } else if (chunkEmails.contains(row.dto().email())) {
+                progress.reject(row.line(), "Email already exists");
+            } else if (chunkIndexes.contains(row.dto().indexNumber())) {
+                progress.reject(row.line(), "Index already exists");
+            } else {
+                // only accepted rows claim their keys, so a rejected row cannot shadow a later one
+                chunkEmails.add(row.dto().email());
+                chunkIndexes.add(row.dto().indexNumber());
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        Set<String> takenEmails = repo.findExistingEmails(chunkEmails);
+        Set<String> takenIndexes = repo.findExistingIndexNumbers(chunkIndexes);
+        List<Row> fresh = new ArrayList<>(valid.size());
+        for (Row row : valid) {
+            if (takenEmails.contains(row.dto().email())) {
+                progress.reject(row.line(), "Email already exists");
+            } else if (takenIndexes.contains(row.dto().indexNumber())) {
+                progress.reject(row.line(), "Index already exists");
+            } else {
+                fresh.add(row);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Student> students = fresh.stream().map(Row::toStudent).toList();
+            tx.executeWithoutResult(status -> {
+                // freshly imported rows are rarely read right away; keep them out of the entity cache
+                entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+                repo.saveAll(students);
+                changeLog.recordCreated(students);
+                entityManager.flush();
+                // The request-scoped persistence context (open-in-view) would otherwise keep every imported row
+                entityManager.clear();
+            });
+            students.forEach(keyFilter::add);
+            progress.imported += fresh.size();
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer took one of the keys after our check: isolate the offending rows
+            log.warn("Batch insert of {} students hit a unique constraint, retrying row by row", fresh.size());
+            for (Row row : fresh) {
+                try {
+                    Student student = row.toStudent();
+                    tx.executeWithoutResult(status -> {
+                        repo.save(student);
+                        changeLog.recordCreated(List.of(student));
+                    });
+                    keyFilter.add(student);
+                    progress.imported++;
+                } catch (DataIntegrityViolationException rowFailure) {
+                    progress.reject(row.line(), "Email or index already exists");
+                }
+            }
+        }
+    }
+
+    private StudentDTO parse(String line, Format format) {
+        if (format == Format.NDJSON) {
+            StudentDTO dto;
+            try {
+                dto = objectMapper.readValue(line, StudentDTO.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+            }
+            if (dto == null) {
+                throw new IllegalArgumentException("Expected a JSON object but got null");
+            }
+            return dto;
+        }
+        List<String> fields = splitCsv(line);
+        if (fields.size() != 3) {
+            throw new IllegalArgumentException("Expected 3 columns (" + CSV_HEADER + ") but got " + fields.size());
+        }
+        return new StudentDTO(null, fields.get(0), fields.get(1), fields.get(2));
+    }
+
+    private static boolean isCsvHeader(String line) {
+        return line.replace(" ", "").equalsIgnoreCase(CSV_HEADER);
+    }
+
+    /** Minimal RFC 4180 field splitting: comma separated, optional double quotes, {@code ""} as escaped quote */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private record Row(long line, StudentDTO dto) {
+        Student toStudent() {
+            Student s = new Student();
+            s.setFullName(dto.fullName());
+            s.setEmail(dto.email());
+            s.setIndexNumber(dto.indexNumber());
+            return s;
+        }
+    }
+
+    private final class Progress {
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+        private final List<StudentImportReport.RowError> errors = new ArrayList<>();
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new StudentImportReport.RowError(line, message));
+            }
+        }
+
+        StudentImportReport toReport() {
+            return new StudentImportReport(rowsRead, imported, rejected, errors, rejected > errors.size());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.students.service;
+
+import com.example.students.model.Student;
+import com.example.students.repo.StudentKeys;
+import com.example.students.repo.StudentRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * In-memory pre-filter for student uniqueness. A negative answer proves the email/index number is
+ * not taken by any student this instance has seen, so {@link StudentService#create} can go straight to
+ * the INSERT; a positive answer only means "maybe" and is confirmed with an indexed lookup.
+ * The unique constraints stay the source of truth (other instances, deletes, startup races).
+ */
+@Component
+public class StudentKeyFilter implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentKeyFilter.class);
+
+    private final StudentRepository repo;
+    private final BloomFilter emails;
+    private final BloomFilter indexNumbers;
+    private final LongAdder definitelyNew = new LongAdder();
+    private final LongAdder maybeTaken = new LongAdder();
+
+    public StudentKeyFilter(StudentRepository repo,
+                            @Value("${students.key-filter.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${students.key-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repo = repo;
+        this.emails = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.indexNumbers = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    /** Loads the keys of all existing students once the application is up */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long count = 0;
+        try (Stream<StudentKeys> keys = repo.streamKeys()) {
+            for (StudentKeys k : (Iterable<StudentKeys>) keys::iterator) {
+                add(k.getEmail(), k.getIndexNumber());
+                count++;
+            }
+        }
+        log.info("Student key filter loaded with {} students", count);
+    }
+
+    public void add(Student s) {
+        add(s.getEmail(), s.getIndexNumber());
+    }
+
+    private void add(String email, String indexNumber) {
+        emails.add(email);
+        indexNumbers.add(indexNumber);
+    }
+
+    public boolean mightContainEmail(String email) {
+        return record(emails.mightContain(email));
+    }
+
+    public boolean mightContainIndexNumber(String indexNumber) {
+        return record(indexNumbers.mightContain(indexNumber));
+    }
+
+    private boolean record(boolean maybe) {
+        (maybe ? maybeTaken : definitelyNew).increment();
+        return maybe;
+    }
+
+    /** Lookups answered without touching the database */
+    public long definitelyNewCount() {
+        return definitelyNew.sum();
+    }
+
+    /** Lookups that needed a confirming query */
+    public long maybeTakenCount() {
+        return maybeTaken.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("students.key.filter.checks", definitelyNew, LongAdder::sum)
+                .description("Uniqueness checks answered by the in-memory key filter")
+                .tag("result", "definitely_new")
+                .register(registry);
+        FunctionCounter.builder("students.key.filter.checks", maybeTaken, LongAdder::sum)
+                .description("Uniqueness checks answered by the in-memory key filter")
+                .tag("result", "maybe_taken")
+                .register(registry);
+    }
+}
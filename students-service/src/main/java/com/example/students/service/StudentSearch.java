@@ -0,0 +1,151 @@
+package com.example.students.service;
+
+import com.example.students.cache.EntityCache;
+import com.example.students.dto.StudentDTO;
+import com.example.students.model.StudentChange;
+import com.example.students.model.StudentFeedHead;
+import com.example.students.repo.StudentFeedHeadRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Search over students by partial name, email or index number from an in-memory {@link SearchIndex}. The index
+ * is loaded from the table once the application is up and then follows the change feed: every committed
+ * create, update, delete or import lands in {@code student_change}, and the index applies what is past its
+ * position right after the local commit and every {@code students.search.refresh} for other instances' writes.
+ * Every change it applies is also evicted from the {@link EntityCache}, which otherwise only learns about
+ * this instance's writes.
+ */
+@Service
+public class StudentSearch implements DisposableBean, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentSearch.class);
+    private static final int CATCH_UP_PAGE = 1000;
+
+    private final StudentService students;
+    private final StudentChangeFeed feed;
+    private final StudentFeedHeadRepository heads;
+    private final EntityCache entityCache;
+    private final SearchIndex index = new SearchIndex();
+    private final AtomicBoolean catchUpPending = new AtomicBoolean();
+    private final ScheduledExecutorService follower = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "student-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Duration refresh;
+    private volatile long position = -1;
+
+    public StudentSearch(StudentService students, StudentChangeFeed feed, StudentFeedHeadRepository heads,
+                         EntityCache entityCache, @Value("${students.search.refresh:2s}") Duration refresh) {
+        this.students = students;
+        this.feed = feed;
+        this.heads = heads;
+        this.entityCache = entityCache;
+        this.refresh = refresh;
+    }
+
+    /**
+     * Loads every student, starting from the feed position read just before: changes that commit while the
+     * table is read are past that position and get applied again by the first catch-up. A load that fails is
+     * retried every {@code students.search.refresh} until one succeeds, and search misses students until then.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        follower.execute(this::catchUpQuietly);
+        long interval = refresh.toMillis();
+        follower.scheduleWithFixedDelay(this::catchUpQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFeedAdvanced(StudentFeedAdvancedEvent event) {
+        // one queued catch-up covers any number of commits that happen before it runs
+        if (catchUpPending.compareAndSet(false, true)) {
+            follower.execute(this::catchUpQuietly);
+        }
+    }
+
+    private void catchUpQuietly() {
+        try {
+            catchUp();
+        } catch (RuntimeException e) {
+            if (position < 0) {
+                log.error("Student search index could not be loaded, retrying in {}", refresh, e);
+            } else {
+                log.warn("Student search index stays at feed position {}: {}", position, e.getMessage());
+            }
+        }
+    }
+
+    private void catchUp() {
+        catchUpPending.set(false);
+        if (position < 0) {
+            loadAll();
+        }
+        List<StudentChange> page;
+        do {
+            page = feed.after(position, CATCH_UP_PAGE);
+            for (StudentChange change : page) {
+                if (change.isDeleted()) {
+                    index.remove(change.getStudentId());
+                } else {
+                    index.put(change.getStudentId(), change.getFullName(), change.getEmail(), change.getIndexNumber());
+                }
+                position = change.getPosition();
+            }
+            if (!page.isEmpty()) {
+                entityCache.evict(page.stream().map(StudentChange::getStudentId).toList());
+            }
+        } while (page.size() == CATCH_UP_PAGE);
+    }
+
+    private void loadAll() {
+        // a failed attempt may have left part of the table behind
+        index.clear();
+        long start = heads.findById(StudentFeedHead.ID).map(StudentFeedHead::getPosition).orElse(0L);
+        students.streamAll(s -> index.put(s.getId(), s.getFullName(), s.getEmail(), s.getIndexNumber()));
+        position = start;
+        log.info("Student search index loaded with {} students at feed position {}", index.size(), start);
+    }
+
+    /** One page of students matching every word of {@code query}, best match first */
+    public Page search(String query, int offset, int size) {
+        SearchIndex.Result result = index.search(query, offset, size);
+        List<StudentDTO> hits = result.page().stream()
+                .map(d -> new StudentDTO(d.id(), d.fullName(), d.email(), d.indexNumber()))
+                .toList();
+        return new Page(hits, result.total());
+    }
+
+    @Override
+    public void destroy() {
+        follower.shutdownNow();
+    }
+
+    /** Students in the index as {@code students.search.documents} */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("students.search.documents", index, SearchIndex::size)
+                .description("Students in the in-memory search index")
+                .register(registry);
+    }
+
+    /** Matches of one search page and how many matched in total */
+    public record Page(List<StudentDTO> students, int total) {}
+}
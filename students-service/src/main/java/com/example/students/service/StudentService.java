@@ -2,31 +2,99 @@ package com.example.students.service;
 import com.example.students.dto.StudentDTO;
 import com.example.students.model.Student;
 import com.example.students.repo.StudentRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 @Service
 public class StudentService {
     private final StudentRepository repo;
-    public StudentService(StudentRepository repo) { this.repo = repo; }
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher events;
+    private final StudentKeyFilter keyFilter;
+    private final StudentChangeLog changeLog;
+    public StudentService(StudentRepository repo, EntityManager entityManager, ApplicationEventPublisher events,
+                          StudentKeyFilter keyFilter, StudentChangeLog changeLog) {
+        this.repo = repo;
+        this.entityManager = entityManager;
+        this.events = events;
+        this.keyFilter = keyFilter;
+        this.changeLog = changeLog;
+    }
     public List<Student> all() { return repo.findAll(); }
+    /** One keyset page ordered by id; {@code afterId == null} starts from the beginning */
+    public List<Student> page(Long afterId, int size) {
+        return repo.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(size));
+    }
+    /** Pushes every student to {@code sink} in id order, detaching each row so the persistence context stays empty */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Student> sink) {
+        try (Stream<Student> students = repo.streamAll()) {
+            students.forEach(s -> {
+                sink.accept(s);
+                entityManager.detach(s);
+            });
+        }
+    }
     public Student byId(Long id) { return repo.findById(id)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                     "Student not found")); }
+    /** Current version of the student, empty if it does not exist */
+    public Optional<Long> versionOf(Long id) { return repo.findVersionById(id); }
+    /** All existing students among {@code ids} in a single query; unknown ids are skipped */
+    public List<Student> byIds(Collection<Long> ids) { return repo.findAllById(ids); }
+    /**
+     * Inserts the student; uniqueness is enforced by the {@code uk_student_*} constraints, so for a new
+     * email/index number this is a single INSERT. Keys the key filter has (maybe) seen are confirmed first
+     * to answer likely duplicates without a failing INSERT.
+     * The change feed entry is written in the same transaction.
+     * @throws DuplicateStudentException if the email or index number is taken
+     */
+    @Transactional
     public Student create(Student s) {
-        repo.findByEmail(s.getEmail()).ifPresent(x -> { throw new
-                ResponseStatusException(HttpStatus.CONFLICT, "Email already exists"); });
-        repo.findByIndexNumber(s.getIndexNumber()).ifPresent(x -> { throw new
-                ResponseStatusException(HttpStatus.CONFLICT, "Index already exists"); });
-        return repo.save(s);
+        if (keyFilter.mightContainEmail(s.getEmail()) && repo.existsByEmail(s.getEmail())) {
+            throw DuplicateStudentException.email();
+        }
+        if (keyFilter.mightContainIndexNumber(s.getIndexNumber()) && repo.existsByIndexNumber(s.getIndexNumber())) {
+            throw DuplicateStudentException.indexNumber();
+        }
+        Student saved = insertOrUpdate(s);
+        keyFilter.add(saved);
+        changeLog.recordCreated(List.of(saved));
+        return saved;
     }
+    @Transactional
     public Student update(Long id, StudentDTO dto) {
         var s = byId(id);
         s.setFullName(dto.fullName());
         s.setEmail(dto.email());
         s.setIndexNumber(dto.indexNumber());
-        return repo.save(s);
+        Student saved = insertOrUpdate(s);
+        keyFilter.add(saved);
+        changeLog.recordUpdated(saved);
+        events.publishEvent(new StudentChangedEvent(id, false));
+        return saved;
+    }
+    private Student insertOrUpdate(Student s) {
+        try {
+            return repo.saveAndFlush(s);
+        } catch (DataIntegrityViolationException e) {
+            throw DuplicateStudentException.from(e);
+        }
+    }
+    @Transactional
+    public void delete(Long id) {
+        repo.delete(byId(id));
+        changeLog.recordDeleted(id);
+        events.publishEvent(new StudentChangedEvent(id, true));
     }
-    public void delete(Long id) { repo.delete(byId(id)); }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.example.students.web;
+
+import com.example.common.web.KeysetPage;
+import com.example.students.dto.StudentChangeView;
+import com.example.students.service.StudentChangeFeed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.example.common.web.KeysetPage.NEXT_CURSOR_HEADER;
+
+@RestController
+@RequestMapping("/students/changes")
+public class StudentChangeController {
+
+    private final StudentChangeFeed feed;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final Duration maxWait;
+
+    public StudentChangeController(StudentChangeFeed feed,
+                                   @Value("${students.changes.default-size:100}") int defaultPageSize,
+                                   @Value("${students.changes.max-size:1000}") int maxPageSize,
+                                   @Value("${students.changes.max-wait:25s}") Duration maxWait) {
+        this.feed = feed;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Changes after position {@code after} in commit order. With {@code wait} (e.g. {@code 20s}) a caught-up
+     * reader is held until something changes; an empty page means the wait ran out. The position to pass
+     * as {@code after} next time is always in {@value KeysetPage#NEXT_CURSOR_HEADER}.
+     */
+    @GetMapping
+    public CompletableFuture<ResponseEntity<List<StudentChangeView>>> changes(
+            @RequestParam(name = "after", defaultValue = "0") long after,
+            @RequestParam(name = "size", required = false) Integer size,
+            @RequestParam(name = "wait", required = false) String wait) {
+        int pageSize = KeysetPage.size(size, defaultPageSize, maxPageSize);
+        Duration requested = wait == null || wait.isBlank() ? Duration.ZERO : parse(wait);
+        Duration pollFor = requested.isNegative() ? Duration.ZERO : requested.compareTo(maxWait) > 0 ? maxWait : requested;
+        return feed.poll(after, pageSize, pollFor).thenApply(page -> ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(page.isEmpty() ? after : page.get(page.size() - 1).getPosition()))
+                .body(page.stream().map(StudentChangeView::of).toList()));
+    }
+
+    /** Accepts the same forms as configuration properties: {@code 20s}, {@code 500ms} or ISO-8601 {@code PT20S} */
+    private static Duration parse(String wait) {
+        try {
+            return DurationStyle.detectAndParse(wait);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid wait: " + wait);
+        }
+    }
+}
@@ -1,14 +1,31 @@
 package com.example.students.web;
+import com.example.common.web.KeysetPage;
+import com.example.common.web.WireFormats;
 import com.example.students.dto.StudentDTO;
+import com.example.students.dto.StudentView;
 import com.example.students.model.Student;
+import com.example.students.service.DuplicateStudentException;
 import com.example.students.service.StudentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger; import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.stream.Collectors;
 
 @RestController
@@ -16,22 +33,102 @@ import java.util.stream.Collectors;
 public class StudentController {
 
     private static final Logger log = LoggerFactory.getLogger(StudentController.class);
+
     private final StudentService service;
+    private final ObjectMapper objectMapper;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxBatchSize;
 
-    public StudentController(StudentService service) {
+    public StudentController(StudentService service,
+                             ObjectMapper objectMapper,
+                             @Value("${students.page.default-size:50}") int defaultPageSize,
+                             @Value("${students.page.max-size:500}") int maxPageSize,
+                             @Value("${students.batch.max-size:500}") int maxBatchSize) {
         this.service = service;
+        this.objectMapper = objectMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Keyset-paginated listing as JSON, Smile or CBOR (see {@link WireFormats}). Pass the
+     * {@value KeysetPage#NEXT_CURSOR_HEADER} value of the previous response as {@code after} to get the next page;
+     * the header is absent on the last page.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, WireFormats.SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<List<StudentView>> all(@RequestParam(name = "after", required = false) Long after,
+                                                 @RequestParam(name = "size", required = false) Integer size) {
+        int pageSize = KeysetPage.size(size, defaultPageSize, maxPageSize);
+        List<StudentView> page = service.page(after, pageSize).stream().map(StudentView::of).toList();
+        return KeysetPage.of(page, pageSize, StudentView::id);
+    }
+
+    /** {@code Accept: application/x-ndjson}: the whole table streamed row by row from a DB cursor */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = out -> {
+            try {
+                service.streamAll(student -> writeLine(out, student));
+            } catch (UncheckedIOException e) {
+                log.warn("NDJSON stream of students aborted: {}", e.getCause().getMessage());
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
-    @GetMapping
-    public List<Student> all() {
-        return service.all();
+    private void writeLine(OutputStream out, Student student) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(StudentView.of(student)));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
+    /** Bulk lookup, e.g. {@code GET /students/batch?ids=1,2,3}; unknown ids are simply missing from the result */
+    @GetMapping("/batch")
+    public ResponseEntity<?> batch(@RequestParam(name = "ids") List<Long> ids) {
+        return lookupBatch(ids);
+    }
+
+    /** Same as the GET variant for id lists too long for a query string */
+    @PostMapping("/batch")
+    public ResponseEntity<?> batchPost(@RequestBody List<Long> ids) {
+        return lookupBatch(ids);
+    }
+
+    private ResponseEntity<?> lookupBatch(List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.size() > maxBatchSize) {
+            log.warn("Rejected batch lookup of {} students (max {})", distinct.size(), maxBatchSize);
+            return ResponseEntity.badRequest().body("At most " + maxBatchSize + " ids per batch");
+        }
+        return ResponseEntity.ok(service.byIds(distinct).stream().map(StudentView::of).toList());
+    }
+
+    /**
+     * Student with a strong ETag derived from its version and the negotiated format (see
+     * {@link WireFormats#etag}). A request whose {@code If-None-Match} still matches gets 304 after a
+     * version-only query, without loading or serializing the student.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<?> one(@PathVariable(name = "id") Long id) {
+    public ResponseEntity<?> one(@PathVariable(name = "id") Long id, WebRequest request,
+                                 HttpServletResponse response) {
+        // set here rather than on the entity, so a 304 carries it as well
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = service.versionOf(id);
+            if (version.isPresent() && request.checkNotModified(WireFormats.etag(version.get(), accept))) {
+                return null;
+            }
+        }
         try {
             Student student = service.byId(id);
-            return ResponseEntity.ok(student);
+            return ResponseEntity.ok().eTag(WireFormats.etag(student.getVersion(), accept)).body(StudentView.of(student));
         } catch (Exception e) {
             log.warn("Student not found with id={}", id);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Student not found with id " + id);
@@ -56,7 +153,10 @@ public class StudentController {
             student.setIndexNumber(dto.indexNumber());
             Student created = service.create(student);
             log.info("Created student index={} email={}", dto.indexNumber(), dto.email());
-            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+            return ResponseEntity.status(HttpStatus.CREATED).body(StudentView.of(created));
+        } catch (DuplicateStudentException e) {
+            log.warn("Rejected duplicate student ({}): index={} email={}", e.getField(), dto.indexNumber(), dto.email());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getReason());
         } catch (Exception e) {
             log.warn("Failed to create student: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
@@ -79,7 +179,10 @@ public class StudentController {
         try {
             Student updated = service.update(id, dto);
             log.info("Updated student id={}", id);
-            return ResponseEntity.ok(updated);
+            return ResponseEntity.ok(StudentView.of(updated));
+        } catch (DuplicateStudentException e) {
+            log.warn("Rejected update of student id={}: {} already taken", id, e.getField());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getReason());
         } catch (Exception e) {
             log.warn("Failed to update student id={}: {}", id, e.getMessage());
             return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
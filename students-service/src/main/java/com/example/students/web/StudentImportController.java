@@ -0,0 +1,42 @@
+package com.example.students.web;
+
+import com.example.students.dto.StudentImportReport;
+import com.example.students.service.StudentImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/students/import")
+public class StudentImportController {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentImportController.class);
+    private static final String TEXT_CSV = "text/csv";
+
+    private final StudentImportService service;
+
+    public StudentImportController(StudentImportService service) {
+        this.service = service;
+    }
+
+    /** CSV body ({@code fullName,email,indexNumber}); read as a stream, never buffered whole */
+    @PostMapping(consumes = TEXT_CSV)
+    public ResponseEntity<StudentImportReport> importCsv(InputStream body) throws IOException {
+        log.info("POST /students/import (CSV)");
+        return ResponseEntity.ok(service.importStudents(body, StudentImportService.Format.CSV));
+    }
+
+    /** NDJSON body, one student object per line */
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StudentImportReport> importNdjson(InputStream body) throws IOException {
+        log.info("POST /students/import (NDJSON)");
+        return ResponseEntity.ok(service.importStudents(body, StudentImportService.Format.NDJSON));
+    }
+}
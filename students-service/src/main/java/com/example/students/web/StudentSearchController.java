@@ -0,0 +1,59 @@
+package com.example.students.web;
+
+import com.example.common.web.KeysetPage;
+import com.example.students.dto.StudentDTO;
+import com.example.students.service.StudentSearch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static com.example.common.web.KeysetPage.NEXT_CURSOR_HEADER;
+
+@RestController
+@RequestMapping("/students/search")
+public class StudentSearchController {
+
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private final StudentSearch search;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public StudentSearchController(StudentSearch search,
+                                   @Value("${students.search.default-size:20}") int defaultPageSize,
+                                   @Value("${students.search.max-size:100}") int maxPageSize) {
+        this.search = search;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Students whose name, email or index number has a word starting with every word of {@code q}, ignoring
+     * case and diacritics ({@code q=dord pet} finds {@code Đorđe Petrović}). Results are ranked, so the cursor in
+     * {@value KeysetPage#NEXT_CURSOR_HEADER} is a position in the ranking rather than an id; the number of
+     * matches is in {@value #TOTAL_COUNT_HEADER}.
+     */
+    @GetMapping
+    public ResponseEntity<List<StudentDTO>> search(@RequestParam(name = "q") String q,
+                                                   @RequestParam(name = "after", defaultValue = "0") int after,
+                                                   @RequestParam(name = "size", required = false) Integer size) {
+        if (q.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query must not be blank");
+        }
+        int pageSize = KeysetPage.size(size, defaultPageSize, maxPageSize);
+        int offset = Math.max(0, after);
+        StudentSearch.Page page = search.search(q, offset, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().header(TOTAL_COUNT_HEADER, String.valueOf(page.total()));
+        if (offset + page.students().size() < page.total()) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(offset + page.students().size()));
+        }
+        return response.body(page.students());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.students.cache;
+
+import com.example.students.model.Student;
+import com.example.students.repo.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(EntityCache.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityCacheTest {
+
+    @Autowired
+    private StudentRepository repo;
+
+    @Autowired
+    private EntityCache entityCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private SessionFactory sessionFactory;
+
+    @BeforeEach
+    void setUp() {
+        repo.deleteAll();
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getStatistics().clear();
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromCacheAndSeeUpdatesAndDeletes() {
+        Student saved = repo.save(student("Ana Petrovic", "ana@example.com", "001/2024"));
+
+        repo.findById(saved.getId());
+        repo.findById(saved.getId());
+        assertThat(region(EntityCache.STUDENT_REGION).getHitCount()).isEqualTo(2);
+
+        saved.setFullName("Ana Jovanovic");
+        repo.save(saved);
+        assertThat(repo.findById(saved.getId())).get().extracting(Student::getFullName).isEqualTo("Ana Jovanovic");
+
+        repo.deleteById(saved.getId());
+        assertThat(repo.findById(saved.getId())).isEmpty();
+    }
+
+    @Test
+    void shouldCacheNaturalKeyLookupsUntilTableChanges() {
+        Student saved = repo.save(student("Marko Nikolic", "marko@example.com", "002/2024"));
+
+        repo.findByEmail("marko@example.com");
+        repo.findByEmail("marko@example.com");
+        CacheRegionStatistics lookups = sessionFactory.getStatistics().getQueryRegionStatistics(EntityCache.NATURAL_KEY_REGION);
+        assertThat(lookups.getHitCount()).isEqualTo(1);
+
+        saved.setEmail("marko.nikolic@example.com");
+        repo.save(saved);
+        assertThat(repo.findByEmail("marko@example.com")).isEmpty();
+        assertThat(repo.findByIndexNumber("002/2024")).get()
+                .extracting(Student::getEmail).isEqualTo("marko.nikolic@example.com");
+    }
+
+    @Test
+    void shouldDropStudentsChangedBehindHibernatesBack() {
+        Student saved = repo.save(student("Jovana Ilic", "jovana@example.com", "003/2024"));
+        repo.findById(saved.getId());
+
+        // what another instance's update looks like from here
+        jdbc.update("update student set full_name = ?, version = version + 1 where id = ?", "Jovana Maric", saved.getId());
+        assertThat(repo.findById(saved.getId())).get().extracting(Student::getFullName).isEqualTo("Jovana Ilic");
+
+        entityCache.evict(List.of(saved.getId()));
+        assertThat(repo.findById(saved.getId())).get().extracting(Student::getFullName).isEqualTo("Jovana Maric");
+    }
+
+    private CacheRegionStatistics region(String name) {
+        return sessionFactory.getStatistics().getDomainDataRegionStatistics(name);
+    }
+
+    private static Student student(String fullName, String email, String indexNumber) {
+        Student s = new Student();
+        s.setFullName(fullName);
+        s.setEmail(email);
+        s.setIndexNumber(indexNumber);
+        return s;
+    }
+}
@@ -4,7 +4,9 @@ import com.example.students.model.Student;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,4 +30,23 @@ class StudentRepositoryTest {
         assertThat(found).isPresent();
         assertThat(found.get().getIndexNumber()).isEqualTo("2025-002");
     }
+
+    @Test
+    void shouldPageByKeyset() {
+        for (int i = 1; i <= 5; i++) {
+            Student s = new Student();
+            s.setFullName("Student Number");
+            s.setEmail("student" + i + "@example.com");
+            s.setIndexNumber("2025-10" + i);
+            repo.save(s);
+        }
+
+        List<Student> first = repo.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2));
+        List<Student> second = repo.findByIdGreaterThanOrderByIdAsc(first.get(1).getId(), Limit.of(2));
+
+        assertThat(first).extracting(Student::getEmail)
+                .containsExactly("student1@example.com", "student2@example.com");
+        assertThat(second).extracting(Student::getEmail)
+                .containsExactly("student3@example.com", "student4@example.com");
+    }
 }
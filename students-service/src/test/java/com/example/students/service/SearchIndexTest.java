@@ -0,0 +1,69 @@
+package com.example.students.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexTest {
+
+    private final SearchIndex index = new SearchIndex();
+
+    @Test
+    void shouldMatchPrefixesIgnoringCaseAndDiacritics() {
+        index.put(1, "Đorđe Čolić", "djordje@example.com", "001/2024");
+        index.put(2, "Ana Šarić", "ana.saric@example.com", "002/2024");
+
+        assertThat(ids("col")).containsExactly(1L);
+        assertThat(ids("ČOLIĆ")).containsExactly(1L);
+        assertThat(ids("dord")).containsExactly(1L);
+        assertThat(ids("djordje colic")).containsExactly(1L);
+        assertThat(ids("Đorđe Šarić")).isEmpty();
+        assertThat(ids("sar")).containsExactly(2L);
+        assertThat(ids("002/20")).containsExactly(2L);
+        assertThat(ids("2024")).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void shouldSplitQueriesLikeTheIndexedNames() {
+        index.put(1, "Ana-Marija Ilić", "ana.marija@example.com", "001/2024");
+        index.put(2, "Sean O'Neil", "oneil@example.com", "002/2024");
+        index.put(3, "Marija Anastasijević", "marija@example.com", "003/2024");
+
+        assertThat(ids("ana-marija")).containsExactly(1L, 3L);
+        assertThat(ids("Ana-Marija Ilić")).containsExactly(1L);
+        assertThat(ids("o'neil")).containsExactly(2L);
+        assertThat(ids("O’Neil")).containsExactly(2L);
+        assertThat(ids("' - ")).isEmpty();
+    }
+
+    @Test
+    void shouldRankNameHitsFirstAndPage() {
+        index.put(1, "Marko Nikolić", "ana.marko@example.com", "001/2024");
+        index.put(2, "Ana Petrović", "petrovic@example.com", "002/2024");
+        index.put(3, "Ana Anić", "ana3@example.com", "003/2024");
+
+        assertThat(ids("ana")).containsExactly(3L, 2L, 1L);
+        SearchIndex.Result second = index.search("ana", 1, 1);
+        assertThat(second.total()).isEqualTo(3);
+        assertThat(second.page()).extracting(SearchIndex.Document::id).containsExactly(2L);
+    }
+
+    @Test
+    void shouldForgetOldTokensOnUpdateAndDelete() {
+        index.put(1, "Ana Petrović", "ana@example.com", "001/2024");
+        index.put(1, "Ana Jovanović", "ana@example.com", "001/2024");
+
+        assertThat(ids("petrovic")).isEmpty();
+        assertThat(ids("jovan")).containsExactly(1L);
+
+        index.remove(1);
+        assertThat(ids("ana")).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, 0, 10).page().stream().map(SearchIndex.Document::id).toList();
+    }
+}
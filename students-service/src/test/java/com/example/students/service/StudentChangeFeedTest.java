@@ -0,0 +1,109 @@
+package com.example.students.service;
+
+import com.example.students.model.Student;
+import com.example.students.model.StudentChange;
+import com.example.students.repo.StudentChangeRepository;
+import com.example.students.repo.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({StudentChangeLog.class, StudentChangeFeed.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StudentChangeFeedTest {
+
+    @Autowired
+    private StudentRepository students;
+
+    @Autowired
+    private StudentChangeRepository changes;
+
+    @Autowired
+    private StudentChangeLog changeLog;
+
+    @Autowired
+    private StudentChangeFeed feed;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        changes.deleteAll();
+        students.deleteAll();
+    }
+
+    @Test
+    void shouldKeepOnlyLatestChangePerStudentInCommitOrder() {
+        Student ana = create("Ana Petrovic", "ana@example.com", "001/2024");
+        Student marko = create("Marko Nikolic", "marko@example.com", "002/2024");
+        long start = feed.after(0, 100).get(0).getPosition() - 1;
+
+        tx.executeWithoutResult(status -> {
+            Student changed = students.findById(ana.getId()).orElseThrow();
+            changed.setEmail("ana.petrovic@example.com");
+            changeLog.recordUpdated(students.saveAndFlush(changed));
+        });
+        tx.executeWithoutResult(status -> {
+            students.deleteById(marko.getId());
+            changeLog.recordDeleted(marko.getId());
+        });
+
+        List<StudentChange> page = feed.after(start, 100);
+        assertThat(page).extracting(StudentChange::getPosition).containsExactly(start + 3, start + 4);
+        assertThat(page.get(0).getEmail()).isEqualTo("ana.petrovic@example.com");
+        assertThat(page.get(0).getVersion()).isEqualTo(1L);
+        assertThat(page.get(1).getStudentId()).isEqualTo(marko.getId());
+        assertThat(page.get(1).isDeleted()).isTrue();
+        assertThat(feed.after(start + 3, 100)).hasSize(1);
+    }
+
+    @Test
+    void shouldWakeParkedReaderWhenChangeCommits() throws Exception {
+        long head = feed.after(0, Integer.MAX_VALUE).stream().mapToLong(StudentChange::getPosition).max().orElse(0);
+        CompletableFuture<List<StudentChange>> poll = feed.poll(head, 10, Duration.ofSeconds(10));
+        assertThat(poll).isNotDone();
+        assertThat(feed.waiting()).isEqualTo(1);
+
+        create("Jovana Ilic", "jovana@example.com", "003/2024");
+
+        assertThat(poll.get(5, TimeUnit.SECONDS)).extracting(StudentChange::getEmail).containsExactly("jovana@example.com");
+        assertThat(feed.waiting()).isZero();
+    }
+
+    @Test
+    void shouldReturnEmptyPageWhenWaitRunsOut() throws Exception {
+        long head = feed.after(0, Integer.MAX_VALUE).stream().mapToLong(StudentChange::getPosition).max().orElse(0);
+
+        assertThat(feed.poll(head, 10, Duration.ofMillis(50)).get(5, TimeUnit.SECONDS)).isEmpty();
+    }
+
+    private Student create(String fullName, String email, String indexNumber) {
+        return tx.execute(status -> {
+            Student s = new Student();
+            s.setFullName(fullName);
+            s.setEmail(email);
+            s.setIndexNumber(indexNumber);
+            Student saved = students.saveAndFlush(s);
+            changeLog.recordCreated(List.of(saved));
+            return saved;
+        });
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.students.service;
+
+import com.example.students.dto.StudentImportReport;
+import com.example.students.model.Student;
+import com.example.students.model.StudentChange;
+import com.example.students.repo.StudentChangeRepository;
+import com.example.students.repo.StudentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(StudentChangeLog.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StudentImportServiceTest {
+
+    @Autowired
+    private StudentRepository repo;
+
+    @Autowired
+    private StudentChangeRepository changes;
+
+    @Autowired
+    private StudentChangeLog changeLog;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StudentImportService service;
+
+    @BeforeEach
+    void setUp() {
+        repo.deleteAll();
+        changes.deleteAll();
+        service = new StudentImportService(repo, new StudentKeyFilter(repo, 1000, 0.01), changeLog, entityManager, transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), 2, 10);
+    }
+
+    @Test
+    void shouldImportCsvInChunksAndReportBadRows() throws Exception {
+        Student existing = new Student();
+        existing.setFullName("Ana Petrovic");
+        existing.setEmail("ana@example.com");
+        existing.setIndexNumber("001/2024");
+        repo.save(existing);
+
+        String csv = """
+                fullName,email,indexNumber
+                Marko Nikolić,marko@example.com,002/2024
+                Ana Jovanović,ana@example.com,003/2024
+                "Đorđe Šarić",djordje@example.com,004/2024
+                lowercase name,bad@example.com,005/2024
+                Jelena Ilić,jelena@example.com,002/2024
+                Mina Kostić,mina@example.com
+                """;
+
+        StudentImportReport report = service.importStudents(stream(csv), StudentImportService.Format.CSV);
+
+        assertThat(report.rowsRead()).isEqualTo(6);
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.errors()).extracting(StudentImportReport.RowError::line)
+                .containsExactlyInAnyOrder(3L, 5L, 6L, 7L);
+        assertThat(repo.findByEmail("djordje@example.com")).isPresent();
+        assertThat(repo.count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldImportNdjson() throws Exception {
+        String ndjson = """
+                {"fullName":"Marko Nikolić","email":"marko@example.com","indexNumber":"002/2024"}
+                {not json}
+                {"fullName":"Jelena Ilić","email":"jelena@example.com","indexNumber":"006/2024"}
+                """;
+
+        StudentImportReport report = service.importStudents(stream(ndjson), StudentImportService.Format.NDJSON);
+
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.rejected()).isEqualTo(1);
+        assertThat(report.errors().get(0).line()).isEqualTo(2);
+        assertThat(changes.findAll()).extracting(StudentChange::getEmail)
+                .containsExactlyInAnyOrder("marko@example.com", "jelena@example.com");
+    }
+
+    @Test
+    void shouldLetOnlyAcceptedRowsClaimKeysAndRejectNullLines() throws Exception {
+        service = new StudentImportService(repo, new StudentKeyFilter(repo, 1000, 0.01), changeLog, entityManager, transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), 10, 10);
+        String ndjson = """
+                {"fullName":"Marko Nikolić","email":"marko@example.com","indexNumber":"002/2024"}
+                {"fullName":"Jelena Ilić","email":"jelena@example.com","indexNumber":"002/2024"}
+                {"fullName":"Jelena Ilić","email":"jelena@example.com","indexNumber":"006/2024"}
+                null
+                """;
+
+        StudentImportReport report = service.importStudents(stream(ndjson), StudentImportService.Format.NDJSON);
+
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.errors()).extracting(StudentImportReport.RowError::line).containsExactly(4L, 2L);
+        assertThat(repo.findByEmail("jelena@example.com")).hasValueSatisfying(
+                s -> assertThat(s.getIndexNumber()).isEqualTo("006/2024"));
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -7,13 +7,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.hibernate.exception.ConstraintViolationException;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,6 +29,15 @@ class StudentServiceTest {
     @Mock
     private StudentRepository repo;
 
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Mock
+    private StudentKeyFilter keyFilter;
+
+    @Mock
+    private StudentChangeLog changeLog;
+
     @InjectMocks
     private StudentService service;
 
@@ -32,13 +48,15 @@ class StudentServiceTest {
         s.setEmail("ana@example.com");
         s.setIndexNumber("2025-001");
 
-        when(repo.findByEmail("ana@example.com")).thenReturn(Optional.empty());
-        when(repo.findByIndexNumber("2025-001")).thenReturn(Optional.empty());
-        when(repo.save(s)).thenReturn(s);
+        when(repo.saveAndFlush(s)).thenReturn(s);
 
         Student saved = service.create(s);
 
         assertThat(saved.getEmail()).isEqualTo("ana@example.com");
+        verify(repo, never()).existsByEmail(any());
+        verify(repo, never()).existsByIndexNumber(any());
+        verify(keyFilter).add(s);
+        verify(changeLog).recordCreated(List.of(s));
     }
 
     @Test
@@ -47,11 +65,30 @@ class StudentServiceTest {
         s.setEmail("ana@example.com");
         s.setIndexNumber("2025-001");
 
-        when(repo.findByEmail("ana@example.com")).thenReturn(Optional.of(s));
+        when(keyFilter.mightContainEmail("ana@example.com")).thenReturn(true);
+        when(repo.existsByEmail("ana@example.com")).thenReturn(true);
 
         assertThatThrownBy(() -> service.create(s))
                 .isInstanceOf(ResponseStatusException.class)
                 .hasMessageContaining("Email already exists");
+        verify(repo, never()).saveAndFlush(any());
+        verify(changeLog, never()).recordCreated(any());
+    }
+
+    @Test
+    void shouldTranslateUniqueConstraintViolationOnInsert() {
+        Student s = new Student();
+        s.setEmail("ana@example.com");
+        s.setIndexNumber("2025-001");
+
+        when(repo.saveAndFlush(s)).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", null, "PUBLIC.UK_STUDENT_INDEX_NUMBER")));
+
+        assertThatThrownBy(() -> service.create(s))
+                .isInstanceOfSatisfying(DuplicateStudentException.class, e -> {
+                    assertThat(e.getField()).isEqualTo(DuplicateStudentException.Field.INDEX_NUMBER);
+                    assertThat(e.getStatusCode().value()).isEqualTo(409);
+                });
     }
 
     @Test
@@ -66,12 +103,28 @@ class StudentServiceTest {
         StudentDTO dto = new StudentDTO(1L, "New Name", "new@example.com", "2025-123");
 
         when(repo.findById(1L)).thenReturn(Optional.of(existing));
-        when(repo.save(existing)).thenReturn(existing);
+        when(repo.saveAndFlush(existing)).thenReturn(existing);
 
         Student updated = service.update(1L, dto);
 
         assertThat(updated.getFullName()).isEqualTo("New Name");
         assertThat(updated.getEmail()).isEqualTo("new@example.com");
         assertThat(updated.getIndexNumber()).isEqualTo("2025-123");
+        verify(changeLog).recordUpdated(existing);
+        verify(events).publishEvent(new StudentChangedEvent(1L, false));
+    }
+
+    @Test
+    void shouldPublishChangeOnDelete() {
+        Student existing = new Student();
+        existing.setId(2L);
+
+        when(repo.findById(2L)).thenReturn(Optional.of(existing));
+
+        service.delete(2L);
+
+        verify(repo).delete(existing);
+        verify(changeLog).recordDeleted(2L);
+        verify(events).publishEvent(new StudentChangedEvent(2L, true));
     }
 }
@@ -1,19 +1,41 @@
 package com.example.students.web;
 
+import com.example.common.web.KeysetPage;
+import com.example.common.web.WireFormats;
+import com.example.students.dto.StudentView;
 import com.example.students.model.Student;
 import com.example.students.service.StudentService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.times;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = StudentController.class)
+@Import(WireFormats.class)
 class StudentControllerTest {
 
     @Autowired
@@ -29,6 +51,7 @@ class StudentControllerTest {
         mockStudent.setFullName("Ana Petrovic");
         mockStudent.setEmail("ana@example.com");
         mockStudent.setIndexNumber("2025-001");
+        mockStudent.setVersion(0L);
 
         given(service.byId(1L)).willReturn(mockStudent);
 
@@ -39,4 +62,158 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.email").value("ana@example.com"))
                 .andExpect(jsonPath("$.indexNumber").value("2025-001"));
     }
+
+    @Test
+    void shouldAnswerMatchingIfNoneMatchWithoutLoadingStudent() throws Exception {
+        Student ana = student(1L, "Ana Petrovic");
+        ana.setVersion(3L);
+        given(service.byId(1L)).willReturn(ana);
+        given(service.versionOf(1L)).willReturn(Optional.of(3L));
+
+        mockMvc.perform(get("/students/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-json\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+
+        mockMvc.perform(get("/students/1").header(HttpHeaders.IF_NONE_MATCH, "\"3-json\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-json\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+        then(service).should(times(1)).byId(1L);
+    }
+
+    @Test
+    void shouldGiveEveryFormatItsOwnETag() throws Exception {
+        Student ana = student(1L, "Ana Petrovic");
+        ana.setVersion(3L);
+        given(service.byId(1L)).willReturn(ana);
+        given(service.versionOf(1L)).willReturn(Optional.of(3L));
+
+        mockMvc.perform(get("/students/1").accept(WireFormats.SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WireFormats.SMILE))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-smile\""));
+        mockMvc.perform(get("/students/1").accept(WireFormats.SMILE)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3-json\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-smile\""));
+        mockMvc.perform(get("/students/1").accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3-cbor\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldReturnNextCursorWhenPageIsFull() throws Exception {
+        given(service.page(null, 2)).willReturn(List.of(student(1L, "Ana Petrovic"), student(2L, "Marko Nikolic")));
+
+        mockMvc.perform(get("/students").param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(KeysetPage.NEXT_CURSOR_HEADER, "2"))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void shouldOmitNextCursorOnLastPage() throws Exception {
+        given(service.page(2L, 2)).willReturn(List.of(student(3L, "Jovan Jovanovic")));
+
+        mockMvc.perform(get("/students").param("after", "2").param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(KeysetPage.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$[0].id").value(3));
+    }
+
+    @Test
+    void shouldDefaultToJsonPageForWildcardAccept() throws Exception {
+        given(service.page(null, 50)).willReturn(List.of(student(1L, "Ana Petrovic")));
+
+        mockMvc.perform(get("/students").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].fullName").value("Ana Petrovic"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStreamStudentsAsNdjson() throws Exception {
+        willAnswer(inv -> {
+            Consumer<Student> sink = inv.getArgument(0);
+            sink.accept(student(1L, "Ana Petrovic"));
+            sink.accept(student(2L, "Marko Nikolic"));
+            return null;
+        }).given(service).streamAll(any(Consumer.class));
+
+        MvcResult pending = mockMvc.perform(get("/students").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body.lines()).hasSize(2);
+        assertThat(body.lines().findFirst()).hasValueSatisfying(line -> assertThat(line).contains("Ana Petrovic"));
+    }
+
+    @Test
+    void shouldLookUpStudentsInBatch() throws Exception {
+        given(service.byIds(any())).willReturn(List.of(student(1L, "Ana Petrovic"), student(3L, "Jovan Jovanovic")));
+
+        mockMvc.perform(post("/students/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2, 3, 3]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].id").value(3));
+
+        then(service).should().byIds(Set.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void shouldServePageAsSmile() throws Exception {
+        Student ana = student(1L, "Ana Petrovic");
+        ana.setVersion(4L);
+        given(service.page(null, 2)).willReturn(List.of(ana, student(2L, "Marko Nikolic")));
+
+        byte[] body = mockMvc.perform(get("/students").param("size", "2").accept(WireFormats.SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WireFormats.SMILE))
+                .andExpect(header().string(KeysetPage.NEXT_CURSOR_HEADER, "2"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<StudentView> page = new SmileMapper().readValue(body, new TypeReference<>() {});
+        assertThat(page).containsExactly(
+                new StudentView(1L, 4L, "Ana Petrovic", "student1@example.com", "2025-001"),
+                new StudentView(2L, null, "Marko Nikolic", "student2@example.com", "2025-002"));
+    }
+
+    @Test
+    void shouldReadAndWriteCborBatch() throws Exception {
+        given(service.byIds(any())).willReturn(List.of(student(3L, "Jovan Jovanovic")));
+        CBORMapper cbor = new CBORMapper();
+
+        byte[] body = mockMvc.perform(post("/students/batch")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cbor.writeValueAsBytes(List.of(3L, 4L))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<StudentView> students = cbor.readValue(body, new TypeReference<>() {});
+        assertThat(students).extracting(StudentView::id).containsExactly(3L);
+        then(service).should().byIds(Set.of(3L, 4L));
+    }
+
+    private static Student student(Long id, String fullName) {
+        Student s = new Student();
+        s.setId(id);
+        s.setFullName(fullName);
+        s.setEmail("student" + id + "@example.com");
+        s.setIndexNumber("2025-00" + id);
+        return s;
+    }
 }